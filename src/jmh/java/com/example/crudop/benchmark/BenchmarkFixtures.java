@@ -0,0 +1,91 @@
+package com.example.crudop.benchmark;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.BiFunction;
+
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.repository.CourseRepository;
+import com.example.crudop.service.CourseEventService;
+import com.example.crudop.service.CourseReplicaService;
+import com.example.crudop.service.CourseService;
+
+/**
+ * Test data and allocation-free stand-ins for the Mongo layer, so service and
+ * controller benchmarks measure our code rather than a driver or a mocking library.
+ */
+final class BenchmarkFixtures {
+
+    private static final String DESCRIPTION = "A course description of realistic length. ".repeat(12);
+
+    private BenchmarkFixtures() {
+    }
+
+    static Course course(int index) {
+        Course course = new Course("Course " + index, "English", "B" + (index % 2 + 1), DESCRIPTION);
+        course.setId(String.format("%024x", index));
+        course.setCreatedDate(LocalDateTime.of(2024, 1, 1, 12, 0).plusMinutes(index));
+        course.setLastModifiedDate(course.getCreatedDate().plusDays(1));
+        course.setVersion(1L);
+        return course;
+    }
+
+    static List<Course> courses(int size) {
+        List<Course> courses = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            courses.add(course(i));
+        }
+        return courses;
+    }
+
+    /**
+     * Repository whose reads return {@code stored} and whose writes echo their argument.
+     */
+    static CourseRepository repository(Course stored) {
+        return stub(CourseRepository.class, (method, args) -> switch (method.getName()) {
+            case "findById" -> Optional.of(stored);
+            case "existsById" -> true;
+            case "insert", "save" -> args[0];
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    /**
+     * Template whose find-and-modify calls behave as if {@code stored} matched.
+     */
+    static MongoOperations mongoOperations(Course stored) {
+        return stub(MongoOperations.class, (method, args) -> switch (method.getName()) {
+            case "findAndReplace" -> args[1];
+            case "findAndModify" -> stored;
+            default -> throw new UnsupportedOperationException(method.getName());
+        });
+    }
+
+    /**
+     * Service over the stubs above, with the local replica switched off and
+     * nobody listening to its events.
+     */
+    static CourseService service(Course stored) {
+        CourseRepository repository = repository(stored);
+        CourseReplicaService replica = new CourseReplicaService(repository,
+                new DefaultListableBeanFactory().getBeanProvider(CourseEventService.class));
+        return new CourseService(repository, mongoOperations(stored), replica, event -> { });
+    }
+
+    private static <T> T stub(Class<T> type, BiFunction<Method, Object[], Object> answer) {
+        return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] {type},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> type.getSimpleName() + " stub";
+                    default -> answer.apply(method, args);
+                }));
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.crudop.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+
+import com.example.crudop.Utils.Utils;
+import com.example.crudop.controller.CourseRestController;
+import com.example.crudop.model.Course;
+import com.example.crudop.request.CourseUpdateRequest;
+import com.example.crudop.service.CourseService;
+import com.example.crudop.service.CourseWriteBehindService;
+
+/**
+ * Request mapping, argument resolution and message conversion in front of
+ * {@link CourseService}, measured through MockMvc without a servlet container.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ControllerDispatchBenchmark {
+
+    private MockMvc mockMvc;
+    private CourseRestController controller;
+    private Course course;
+    private String updateBody;
+
+    @Setup
+    public void setUp() throws Exception {
+        course = BenchmarkFixtures.course(1);
+        CourseService service = BenchmarkFixtures.service(course);
+        CourseWriteBehindService writeBehind = new CourseWriteBehindService(BenchmarkFixtures.mongoOperations(course),
+                event -> { });
+        controller = new CourseRestController(service, writeBehind, new SimpleAsyncTaskExecutor());
+        mockMvc = MockMvcBuilders.standaloneSetup(controller).build();
+        updateBody = Utils.toJson(new CourseUpdateRequest(course.getId(), "Course", "English", "B2", course.getDescription()));
+    }
+
+    @Benchmark
+    public ResponseEntity<Course> directGetOne() {
+        return controller.getOne(course.getId());
+    }
+
+    @Benchmark
+    public String dispatchGetOne() throws Exception {
+        return mockMvc.perform(get("/api/v1/courses/{id}", course.getId()))
+                .andReturn().getResponse().getContentAsString();
+    }
+
+    @Benchmark
+    public String dispatchUpdateDto() throws Exception {
+        return mockMvc.perform(put("/api/v1/courses/dto")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(updateBody))
+                .andReturn().getResponse().getContentAsString();
+    }
+}
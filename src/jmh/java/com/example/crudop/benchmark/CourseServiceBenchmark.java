@@ -0,0 +1,66 @@
+package com.example.crudop.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.request.CoursePatchRequest;
+import com.example.crudop.request.CourseUpdateRequest;
+import com.example.crudop.service.CourseService;
+
+/**
+ * Mapping and update paths of {@link CourseService} against a stubbed Mongo layer.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class CourseServiceBenchmark {
+
+    private CourseService service;
+    private Course course;
+    private CourseCreateRequest createRequest;
+    private CourseUpdateRequest updateRequest;
+    private CoursePatchRequest patchRequest;
+
+    @Setup
+    public void setUp() {
+        course = BenchmarkFixtures.course(1);
+        service = BenchmarkFixtures.service(course);
+        createRequest = new CourseCreateRequest("Course", "English", "B1", course.getDescription());
+        updateRequest = new CourseUpdateRequest(course.getId(), "Course", "English", "B2", course.getDescription());
+        patchRequest = new CoursePatchRequest(null, null, "B2", null);
+    }
+
+    @Benchmark
+    public Course getById() {
+        return service.getById(course.getId());
+    }
+
+    @Benchmark
+    public Course createFromRequest() {
+        return service.create(createRequest);
+    }
+
+    @Benchmark
+    public Course updateEntity() {
+        return service.update(course);
+    }
+
+    @Benchmark
+    public Course updateFromRequest() {
+        return service.update(updateRequest);
+    }
+
+    @Benchmark
+    public boolean patch() {
+        return service.patch(course.getId(), patchRequest);
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.crudop.benchmark;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import com.example.crudop.CrudopApplication;
+import com.example.crudop.model.Course;
+import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.service.CourseService;
+
+/**
+ * Throughput and latency distribution of the REST endpoints over real HTTP,
+ * against the Mongo in {@code spring.data.mongodb.uri} (pass
+ * {@code -Dspring.data.mongodb.uri=...} to point it at a stand-in instance).
+ * Runs once per request threading model so the two can be compared.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Threads(32)
+public class EndToEndBenchmark {
+
+    @Param({"false", "true"})
+    public boolean virtualThreads;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private Course course;
+    private HttpRequest getOne;
+    private HttpRequest getPage;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(CrudopApplication.class)
+                .properties("server.port=0", "spring.threads.virtual.enabled=" + virtualThreads,
+                        "courses.rate-limit.enabled=false")
+                .run();
+        course = context.getBean(CourseService.class)
+                .create(new CourseCreateRequest("Benchmark", "English", "B1", "###benchmark end-to-end"));
+
+        String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port") + "/api/v1/courses/";
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        getOne = HttpRequest.newBuilder(URI.create(base + course.getId())).GET().build();
+        getPage = HttpRequest.newBuilder(URI.create(base + "?limit=20")).GET().build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.getBean(CourseService.class).delete(course.getId());
+        context.close();
+    }
+
+    @Benchmark
+    public String getOne() throws IOException, InterruptedException {
+        return client.send(getOne, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    @Benchmark
+    public String getPage() throws IOException, InterruptedException {
+        return client.send(getPage, HttpResponse.BodyHandlers.ofString()).body();
+    }
+}
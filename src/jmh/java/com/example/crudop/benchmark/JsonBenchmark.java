@@ -0,0 +1,75 @@
+package com.example.crudop.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.crudop.Utils.Utils;
+import com.example.crudop.model.Course;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class JsonBenchmark {
+
+    @Param({"1", "100", "1000"})
+    public int size;
+
+    // a fresh Boot-style mapper, as Utils.toJson used to build on every call
+    private ObjectMapper mvcMapper;
+
+    private Course course;
+    private List<Course> courses;
+
+    @Setup
+    public void setUp() {
+        mvcMapper = Jackson2ObjectMapperBuilder.json().build();
+        course = BenchmarkFixtures.course(0);
+        courses = BenchmarkFixtures.courses(size);
+    }
+
+    @Benchmark
+    public String mvcMapperCourse() throws JsonProcessingException {
+        return mvcMapper.writeValueAsString(course);
+    }
+
+    @Benchmark
+    public String mvcMapperCourseList() throws JsonProcessingException {
+        return mvcMapper.writeValueAsString(courses);
+    }
+
+    @Benchmark
+    public String utilsToJsonCourse() throws JsonProcessingException {
+        return Utils.toJson(course);
+    }
+
+    @Benchmark
+    public String utilsToJsonCourseList() throws JsonProcessingException {
+        return Utils.toJson(courses);
+    }
+
+    @Benchmark
+    public String courseListWriter() throws JsonProcessingException {
+        return Utils.courseListWriter().writeValueAsString(courses);
+    }
+
+    @Benchmark
+    public int streamingJsonArray() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size * 512);
+        Utils.writeJsonArray(courses.iterator(), out);
+        return out.size();
+    }
+}
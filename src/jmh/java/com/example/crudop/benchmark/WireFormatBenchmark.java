@@ -0,0 +1,65 @@
+package com.example.crudop.benchmark;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.example.crudop.Utils.Utils;
+import com.example.crudop.model.Course;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * Serialization and deserialization time of a course listing per wire format.
+ * Payload sizes are printed once per trial.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WireFormatBenchmark {
+
+    @Param({"json", "smile", "cbor"})
+    public String format;
+
+    @Param({"1", "100"})
+    public int size;
+
+    private List<Course> courses;
+    private ObjectWriter writer;
+    private ObjectReader reader;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        ObjectMapper mapper = switch (format) {
+            case "smile" -> Utils.smileMapper();
+            case "cbor" -> Utils.cborMapper();
+            default -> Utils.mapper();
+        };
+        courses = BenchmarkFixtures.courses(size);
+        writer = mapper.writerFor(mapper.getTypeFactory().constructCollectionType(List.class, Course.class));
+        reader = mapper.readerForListOf(Course.class);
+        payload = writer.writeValueAsBytes(courses);
+        System.out.printf("%n%s, %d courses: %d bytes%n", format, size, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(courses);
+    }
+
+    @Benchmark
+    public List<Course> deserialize() throws IOException {
+        return reader.readValue(payload);
+    }
+}
@@ -1,12 +1,132 @@
 package com.example.crudop.Utils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Iterator;
+import java.util.List;
+
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.request.CourseUpdateRequest;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
 
+/**
+ * Shared JSON facility for code outside the Spring MVC/WebFlux converters. Its
+ * JSON mapper is built from Boot's defaults with ISO dates and never changes,
+ * so callers get the same output with or without an application context; the
+ * application's own {@link ObjectMapper} bean is configured separately. The
+ * readers and writers are immutable and safe to share between threads.
+ *
+ * <p>The Smile and CBOR mappers back the binary content types of the REST API.
+ * They write dates as numeric arrays, which is far smaller than ISO strings, and
+ * Smile also back-references repeated names and short values.
+ *
+ * <p>All mappers take their encoding buffers from a shared pool, so serializing
+ * a response does not allocate fresh buffers even on virtual threads.
+ */
 public class Utils {
 
+    private static final ObjectMapper JSON_MAPPER = pooled(Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS,
+                    SerializationFeature.WRITE_DURATIONS_AS_TIMESTAMPS)
+            .build());
+    private static final ObjectMapper SMILE_MAPPER = pooled(Jackson2ObjectMapperBuilder.smile()
+            .factory(SmileFactory.builder().enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES).build())
+            .build());
+    private static final ObjectMapper CBOR_MAPPER = pooled(Jackson2ObjectMapperBuilder.cbor().build());
+
+    private static final ObjectWriter COURSE_WRITER = JSON_MAPPER.writerFor(Course.class);
+    private static final ObjectWriter COURSE_LIST_WRITER = JSON_MAPPER.writerFor(new TypeReference<List<Course>>() { });
+    private static final ObjectReader COURSE_READER = JSON_MAPPER.readerFor(Course.class);
+    private static final ObjectReader CREATE_REQUEST_READER = JSON_MAPPER.readerFor(CourseCreateRequest.class);
+    private static final ObjectReader UPDATE_REQUEST_READER = JSON_MAPPER.readerFor(CourseUpdateRequest.class);
+
+    // encoding buffers come from one shared pool instead of a ThreadLocal, which
+    // virtual threads would refill on every request
+    public static ObjectMapper pooled(ObjectMapper mapper) {
+        mapper.getFactory().setRecyclerPool(JsonRecyclerPools.sharedConcurrentDequePool());
+        return mapper;
+    }
+
+    public static ObjectMapper mapper() {
+        return JSON_MAPPER;
+    }
+
+    public static ObjectMapper smileMapper() {
+        return SMILE_MAPPER;
+    }
+
+    public static ObjectMapper cborMapper() {
+        return CBOR_MAPPER;
+    }
+
     public static String toJson(Object object) throws JsonProcessingException {
-        return new ObjectMapper().writeValueAsString(object);
+        return JSON_MAPPER.writeValueAsString(object);
+    }
+
+    public static ObjectWriter courseWriter() {
+        return COURSE_WRITER;
+    }
+
+    public static ObjectWriter courseListWriter() {
+        return COURSE_LIST_WRITER;
+    }
+
+    public static ObjectReader courseReader() {
+        return COURSE_READER;
+    }
+
+    public static ObjectReader createRequestReader() {
+        return CREATE_REQUEST_READER;
+    }
+
+    public static ObjectReader updateRequestReader() {
+        return UPDATE_REQUEST_READER;
+    }
+
+    /**
+     * Writes the courses as one JSON array, element by element, without building
+     * the whole document in memory. The stream is flushed but not closed.
+     */
+    public static void writeJsonArray(Iterator<Course> courses, OutputStream out) throws IOException {
+        ObjectWriter writer = COURSE_WRITER;
+        try (JsonGenerator generator = JSON_MAPPER.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.writeStartArray();
+            while (courses.hasNext()) {
+                writer.writeValue(generator, courses.next());
+            }
+            generator.writeEndArray();
+        }
+        out.flush();
+    }
+
+    /**
+     * Writes the courses as NDJSON, one document per line. The stream is flushed
+     * but not closed.
+     */
+    public static void writeNdjson(Iterator<Course> courses, OutputStream out) throws IOException {
+        ObjectWriter writer = COURSE_WRITER;
+        try (JsonGenerator generator = JSON_MAPPER.createGenerator(out)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            while (courses.hasNext()) {
+                writer.writeValue(generator, courses.next());
+                generator.writeRaw('\n');
+            }
+        }
+        out.flush();
     }
 
 }
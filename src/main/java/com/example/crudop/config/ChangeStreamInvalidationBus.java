@@ -0,0 +1,34 @@
+package com.example.crudop.config;
+
+import java.time.Duration;
+
+import com.example.crudop.request.CourseEvent;
+import com.example.crudop.service.CourseEventService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Uses the change stream of the {@code courses} collection as the bus, so every
+ * write from any instance, bulk endpoints and write-behind included, is seen
+ * without publishing anything between instances. The writes of this instance
+ * are applied right away as well, without waiting for the stream. Needs a
+ * replica set.
+ */
+@RequiredArgsConstructor
+public class ChangeStreamInvalidationBus extends LocalInvalidationBus {
+
+    private final CourseEventService events;
+    private final Duration reconnectDelay;
+
+    @Override
+    public Flux<Invalidation> invalidations() {
+        Flux<Invalidation> changeStream = events.events(null)
+                .map(event -> event.type() == CourseEvent.Type.RESET ? Invalidation.all() : new Invalidation(event.id()))
+                // changes made while the stream was down are unknown, so everything is dropped
+                .onErrorResume(e -> Mono.just(Invalidation.all()))
+                .repeatWhen(completed -> completed.delayElements(reconnectDelay));
+        return Flux.merge(super.invalidations(), changeStream);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.crudop.config;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Transport for near-cache invalidations between instances. The writes of this
+ * instance, published as {@link com.example.crudop.request.CourseChanged} events,
+ * come through right away; the bus brings the writes of everyone else.
+ */
+public interface CourseInvalidationBus {
+
+    /**
+     * @param courseId the changed course, {@code null} when every cached entry may be stale
+     */
+    record Invalidation(String courseId) {
+
+        public static Invalidation all() {
+            return new Invalidation(null);
+        }
+    }
+
+    Flux<Invalidation> invalidations();
+}
@@ -0,0 +1,126 @@
+package com.example.crudop.config;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.stereotype.Component;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.request.CourseChanged;
+import com.example.crudop.request.CourseCreateRequest;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Seeds an empty catalog from {@code courses.seed.file} once the application is
+ * ready, off the startup path, so a slow or unavailable Mongo neither delays nor
+ * fails the start. Seed courses get ids derived from their content, so instances
+ * starting together insert each of them at most once. Like every other write,
+ * each seeded course is published as a {@link CourseChanged}, which keeps a
+ * replica rebuilt before the seed and the cached filter listings up to date.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CourseSeeder {
+
+    private static final TypeReference<List<CourseCreateRequest>> SEED_TYPE = new TypeReference<>() {
+    };
+
+    private final MongoOperations mongoOperations;
+    private final ObjectMapper objectMapper;
+    private final ResourceLoader resourceLoader;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+    private final ApplicationEventPublisher events;
+
+    @Value("${courses.seed.enabled:true}")
+    private boolean enabled;
+
+    @Value("${courses.seed.file:classpath:seed/courses.json}")
+    private String file;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedWhenReady() {
+        if (!enabled) {
+            return;
+        }
+        applicationTaskExecutor.execute(() -> {
+            try {
+                int inserted = seed();
+                if (inserted > 0) {
+                    log.info("Seeded {} courses from {}", inserted, file);
+                }
+            } catch (RuntimeException e) {
+                log.warn("Seeding courses from {} failed", file, e);
+            }
+        });
+    }
+
+    /**
+     * Inserts the seed courses if the catalog is empty.
+     *
+     * @return the number of courses this call inserted
+     */
+    public int seed() {
+        if (file == null || file.isBlank() || mongoOperations.exists(new Query(), Course.class)) {
+            return 0;
+        }
+
+        int inserted = 0;
+        for (CourseCreateRequest request : read(resourceLoader.getResource(file))) {
+            Course course = new Course(request.name(), request.language(), request.level(), request.description());
+            course.setId(seedId(request));
+            course.setCreatedDate(LocalDateTime.now());
+            try {
+                mongoOperations.insert(course);
+                inserted++;
+                events.publishEvent(CourseChanged.saved(course));
+            } catch (DuplicateKeyException e) {
+                // seeded by another instance in the meantime
+                events.publishEvent(CourseChanged.changed(course.getId()));
+            }
+        }
+        return inserted;
+    }
+
+    private List<CourseCreateRequest> read(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return objectMapper.readValue(in, SEED_TYPE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read seed file " + resource, e);
+        }
+    }
+
+    // 24 hex digits, stored as an ObjectId like any other course id
+    private static String seedId(CourseCreateRequest request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(
+                    (request.name() + '\u0000' + request.language() + '\u0000' + request.level())
+                            .getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.crudop.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.boot.web.codec.CodecCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.codec.cbor.Jackson2CborDecoder;
+import org.springframework.http.codec.cbor.Jackson2CborEncoder;
+import org.springframework.http.codec.json.Jackson2SmileDecoder;
+import org.springframework.http.codec.json.Jackson2SmileEncoder;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+import com.example.crudop.Utils.Utils;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+
+@Configuration
+public class JacksonConfiguration {
+
+    // applied to Boot's builder, so MVC/WebFlux and every mapper built from it get
+    // pooled buffers and, with courses.json.blackbird=true, bytecode accessors
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer courseJacksonCustomizer(
+            @Value("${courses.json.blackbird:false}") boolean blackbird) {
+        return builder -> {
+            if (blackbird) {
+                builder.postConfigurer(mapper -> mapper.registerModule(new BlackbirdModule()));
+            }
+            builder.postConfigurer(Utils::pooled);
+        };
+    }
+
+    // application/x-jackson-smile and application/cbor, negotiated through Accept/Content-Type
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter() {
+        return new MappingJackson2SmileHttpMessageConverter(Utils.smileMapper());
+    }
+
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter() {
+        return new MappingJackson2CborHttpMessageConverter(Utils.cborMapper());
+    }
+
+    @Bean
+    public CodecCustomizer binaryCodecCustomizer() {
+        return configurer -> {
+            configurer.defaultCodecs().jackson2SmileDecoder(new Jackson2SmileDecoder(Utils.smileMapper()));
+            configurer.defaultCodecs().jackson2SmileEncoder(new Jackson2SmileEncoder(Utils.smileMapper()));
+            configurer.customCodecs().register(new Jackson2CborDecoder(Utils.cborMapper()));
+            configurer.customCodecs().register(new Jackson2CborEncoder(Utils.cborMapper()));
+        };
+    }
+
+}
@@ -0,0 +1,88 @@
+package com.example.crudop.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+/**
+ * Writes a {@link Stream} response body as a JSON array while the stream is
+ * consumed, flushing every {@code flushEvery} elements so the first chunks reach
+ * the client before the last elements are read. The stream is closed afterwards,
+ * which releases a Mongo cursor behind it. If the stream fails midway the array
+ * is left open, so the client sees a truncated body rather than a short but
+ * well-formed one.
+ */
+public class JsonStreamHttpMessageConverter extends AbstractGenericHttpMessageConverter<Stream<?>> {
+
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter elementWriter;
+    private final int flushEvery;
+
+    public JsonStreamHttpMessageConverter(ObjectMapper objectMapper, int flushEvery) {
+        super(MediaType.APPLICATION_JSON);
+        this.objectMapper = objectMapper;
+        // flushing is batched below, not done after every element
+        this.elementWriter = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.flushEvery = Math.max(1, flushEvery);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return Stream.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected boolean canRead(MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Stream<?> stream, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (stream; JsonGenerator generator = objectMapper.createGenerator(outputMessage.getBody())) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // a cursor failing midway must leave the array unterminated, not close it as if it were complete
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+            generator.writeStartArray();
+            Iterator<?> elements = stream.iterator();
+            for (int written = 1; elements.hasNext(); written++) {
+                elementWriter.writeValue(generator, elements.next());
+                if (written % flushEvery == 0) {
+                    generator.flush();
+                }
+            }
+            generator.writeEndArray();
+        }
+    }
+
+    // canRead is false, only reachable by calling the converter directly
+    @Override
+    public Stream<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw notReadable(inputMessage);
+    }
+
+    @Override
+    protected Stream<?> readInternal(Class<? extends Stream<?>> clazz, HttpInputMessage inputMessage) {
+        throw notReadable(inputMessage);
+    }
+
+    private static HttpMessageNotReadableException notReadable(HttpInputMessage inputMessage) {
+        return new HttpMessageNotReadableException("Stream bodies can only be written", inputMessage);
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.crudop.config;
+
+import java.time.Duration;
+
+import org.springframework.context.event.EventListener;
+
+import com.example.crudop.request.CourseChanged;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+/**
+ * In-memory bus carrying the writes of this instance, enough for a single
+ * instance. Subscribers run on the publishing thread, so a write is evicted
+ * before it is answered. Tests publish the invalidations another instance
+ * would have sent.
+ */
+public class LocalInvalidationBus implements CourseInvalidationBus {
+
+    private final Sinks.Many<Invalidation> sink = Sinks.many().multicast().directBestEffort();
+
+    @EventListener
+    public void courseChanged(CourseChanged change) {
+        publish(change.courseId());
+    }
+
+    public void publish(String courseId) {
+        sink.emitNext(new Invalidation(courseId), Sinks.EmitFailureHandler.busyLooping(Duration.ofSeconds(1)));
+    }
+
+    @Override
+    public Flux<Invalidation> invalidations() {
+        return sink.asFlux();
+    }
+}
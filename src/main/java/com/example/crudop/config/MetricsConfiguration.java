@@ -0,0 +1,21 @@
+package com.example.crudop.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * HTTP, JVM, cache and Mongo driver metrics are bound by actuator; this adds the
+ * aspect behind {@code @Timed}, which times every public service method as
+ * {@code courses.service} tagged with class and method.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry registry) {
+        return new TimedAspect(registry);
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.crudop.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.mongo.MongoClientSettingsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.MongoTemplate;
+import org.springframework.data.mongodb.core.index.IndexField;
+import org.springframework.data.mongodb.core.index.IndexInfo;
+import org.springframework.data.mongodb.core.index.IndexOperations;
+import org.springframework.data.mongodb.core.index.TextIndexDefinition.TextIndexDefinitionBuilder;
+import org.springframework.data.mongodb.core.messaging.DefaultMessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+
+import com.example.crudop.model.Course;
+
+@Configuration
+public class MongoConfiguration {
+
+    private static final String COURSE_TEXT_INDEX = "course_text";
+
+    /**
+     * Sizes the driver connection pool for the request threading model. Virtual
+     * threads let far more requests block on Mongo at once than the Tomcat pool
+     * did, so that mode gets a larger pool and a bounded wait for a connection.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer connectionPoolCustomizer(
+            @Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads,
+            @Value("${courses.mongo.pool.max-size:100}") int maxSize,
+            @Value("${courses.mongo.pool.virtual-max-size:500}") int virtualMaxSize,
+            @Value("${courses.mongo.pool.max-wait:2s}") Duration maxWait) {
+        int poolSize = virtualThreads ? virtualMaxSize : maxSize;
+        return settings -> settings.applyToConnectionPoolSettings(pool -> pool
+                .maxSize(poolSize)
+                .maxWaitTime(maxWait.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Logs commands slower than {@code courses.mongo.slow-query-threshold}; applies
+     * to both the blocking and, with the reactive profile, the reactive client.
+     */
+    @Bean
+    public MongoClientSettingsBuilderCustomizer slowCommandLogger(
+            @Value("${courses.mongo.slow-query-threshold:100ms}") Duration threshold) {
+        return settings -> {
+            if (threshold != null && !threshold.isZero() && !threshold.isNegative()) {
+                settings.addCommandListener(new SlowCommandListener(threshold));
+            }
+        };
+    }
+
+    /**
+     * Runs the change stream cursors of the course events, each on its own
+     * thread of the blocking client.
+     */
+    @Bean
+    public MessageListenerContainer changeStreamContainer(MongoTemplate mongoTemplate) {
+        return new DefaultMessageListenerContainer(mongoTemplate);
+    }
+
+    /**
+     * The text index over name and description. It is not declared with
+     * {@code @TextIndexed}: a text index takes each document's language from the
+     * field named by its language override, {@code language} by default, and a
+     * course's {@code language} is the language it teaches ("Eng", "Ukrainian"),
+     * which Mongo refuses to store unless it is one of its stemming languages.
+     * The override here names a field courses never have.
+     */
+    @Bean
+    public SmartInitializingSingleton courseTextIndex(MongoOperations mongoOperations,
+            @Value("${spring.data.mongodb.auto-index-creation:false}") boolean autoIndexCreation) {
+        return () -> {
+            if (!autoIndexCreation) {
+                return;
+            }
+            IndexOperations indexes = mongoOperations.indexOps(Course.class);
+            // a collection holds a single text index, replace one created with the default override
+            for (IndexInfo index : indexes.getIndexInfo()) {
+                if (!COURSE_TEXT_INDEX.equals(index.getName()) && index.getIndexFields().stream().anyMatch(IndexField::isText)) {
+                    indexes.dropIndex(index.getName());
+                }
+            }
+            indexes.createIndex(new TextIndexDefinitionBuilder()
+                    .named(COURSE_TEXT_INDEX)
+                    .onField("name", 3F)
+                    .onField("description")
+                    .withDefaultLanguage("none")
+                    .withLanguageOverride("textLanguage")
+                    .build());
+        };
+    }
+
+}
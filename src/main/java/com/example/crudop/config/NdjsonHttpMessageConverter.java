@@ -0,0 +1,77 @@
+package com.example.crudop.config;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Reads an {@code application/x-ndjson} request body, one JSON value per line,
+ * into a {@link List} of the declared element type, and writes a {@link List}
+ * response body the same way when the client asks for NDJSON. Streamed
+ * responses are written by a {@code ResponseBodyEmitter} instead.
+ */
+public class NdjsonHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final ObjectMapper objectMapper;
+
+    public NdjsonHttpMessageConverter(ObjectMapper objectMapper) {
+        super(MediaType.APPLICATION_NDJSON);
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        JavaType javaType = javaType(type, contextClass);
+        return javaType.isCollectionLikeType() && supports(javaType.getRawClass()) && canRead(mediaType);
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        JavaType elementType = javaType(type, contextClass).getContentType();
+        try (MappingIterator<Object> values = objectMapper.readerFor(elementType).readValues(inputMessage.getBody())) {
+            return values.readAll();
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("Invalid NDJSON: " + e.getOriginalMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) throws IOException {
+        return read(clazz, null, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage) throws IOException {
+        try (JsonGenerator generator = objectMapper.createGenerator(outputMessage.getBody())) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // the newline below separates the values, not the default space
+            generator.setRootValueSeparator(null);
+            for (Object value : (List<?>) object) {
+                objectMapper.writeValue(generator, value);
+                generator.writeRaw('\n');
+            }
+        }
+    }
+
+    private JavaType javaType(Type type, Class<?> contextClass) {
+        return objectMapper.getTypeFactory().constructType(GenericTypeResolver.resolveType(type, contextClass));
+    }
+}
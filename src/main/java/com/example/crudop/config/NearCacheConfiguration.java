@@ -0,0 +1,102 @@
+package com.example.crudop.config;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.cache.CacheManagerCustomizer;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.example.crudop.config.CourseInvalidationBus.Invalidation;
+import com.example.crudop.service.CourseEventService;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import reactor.core.Disposable;
+
+/**
+ * Per-instance near-cache of course lookups ({@code courses}) and filtered
+ * listings ({@code course-filters}), kept coherent by the invalidations of a
+ * {@link CourseInvalidationBus}. The cache TTLs bound how long a lost
+ * invalidation can serve stale data. Catalog statistics ({@code course-stats})
+ * only expire.
+ */
+@Configuration
+public class NearCacheConfiguration {
+
+    @Bean
+    public CourseInvalidationBus courseInvalidationBus(@Value("${courses.near-cache.transport:local}") String transport,
+            @Value("${courses.near-cache.reconnect-delay:1s}") Duration reconnectDelay,
+            ObjectProvider<CourseEventService> events) {
+        if ("change-stream".equals(transport)) {
+            return new ChangeStreamInvalidationBus(events.getObject(), reconnectDelay);
+        }
+        return new LocalInvalidationBus();
+    }
+
+    // listings cannot be invalidated per course, so they only live briefly
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> filterCacheCustomizer(
+            @Value("${courses.near-cache.filter-ttl:5s}") Duration ttl,
+            @Value("${courses.near-cache.filter-max-size:1000}") long maxSize) {
+        return cacheManager -> cacheManager.registerCustomCache("course-filters", Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+
+    // statistics are not invalidated by writes at all, a dashboard can live with ttl of lag
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> statsCacheCustomizer(
+            @Value("${courses.stats.ttl:30s}") Duration ttl) {
+        return cacheManager -> cacheManager.registerCustomCache("course-stats", Caffeine.newBuilder()
+                .maximumSize(100)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build());
+    }
+
+    @Bean
+    public SmartLifecycle nearCacheInvalidator(CourseInvalidationBus bus, CacheManager cacheManager) {
+        return new SmartLifecycle() {
+
+            private volatile Disposable subscription;
+
+            @Override
+            public void start() {
+                subscription = bus.invalidations().subscribe(invalidation -> apply(cacheManager, invalidation));
+            }
+
+            @Override
+            public void stop() {
+                subscription.dispose();
+            }
+
+            @Override
+            public boolean isRunning() {
+                return subscription != null && !subscription.isDisposed();
+            }
+        };
+    }
+
+    private static void apply(CacheManager cacheManager, Invalidation invalidation) {
+        Cache filters = cacheManager.getCache("course-filters");
+        if (filters != null) {
+            filters.clear();
+        }
+        Cache courses = cacheManager.getCache("courses");
+        if (courses == null) {
+            return;
+        }
+        if (invalidation.courseId() == null) {
+            courses.clear();
+        } else {
+            courses.evict(invalidation.courseId());
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.example.crudop.config;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Token bucket per client and endpoint, plus a global cap on concurrent
+ * requests. Over its bucket a client gets 429, over the cap everyone gets 503,
+ * both with {@code Retry-After}, before Tomcat or the Mongo pool run dry.
+ * <p>
+ * Each bucket is a single {@link AtomicLong} updated by CAS (the GCRA form of a
+ * token bucket: it stores when the bucket will be full again), so there are no
+ * locks on the request path. Rejections are counted as
+ * {@code courses.rate-limit.rejections} tagged by reason.
+ * <p>
+ * An async request, such as a streamed export, counts as in flight until it
+ * completes, not just until its servlet thread is released. SSE subscriptions
+ * are the exception: they only count while the subscription is set up.
+ */
+class RateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitProperties properties;
+    private final List<Limit> limits;
+    private final Limit defaultLimit;
+    private final Cache<String, AtomicLong> buckets;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Counter rateRejections;
+    private final Counter concurrencyRejections;
+
+    RateLimitFilter(RateLimitProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.limits = properties.endpoints().stream()
+                .map(endpoint -> Limit.of(endpoint.method() + " " + endpoint.pattern(), endpoint.method(),
+                        PathPatternParser.defaultInstance.parse(endpoint.pattern()),
+                        endpoint.capacity(), endpoint.refillPerSecond()))
+                .toList();
+        this.defaultLimit = Limit.of("default", null, null,
+                properties.defaults().capacity(), properties.defaults().refillPerSecond());
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.maxClients())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.rateRejections = Counter.builder("courses.rate-limit.rejections").tag("reason", "rate").register(registry);
+        this.concurrencyRejections = Counter.builder("courses.rate-limit.rejections").tag("reason", "concurrency")
+                .register(registry);
+        Gauge.builder("courses.rate-limit.in-flight", inFlight, AtomicInteger::get).register(registry);
+    }
+
+    // emission interval and burst tolerance in nanos, see tryAcquire
+    private record Limit(String name, String method, PathPattern pattern, long interval, long tolerance) {
+
+        static Limit of(String name, String method, PathPattern pattern, long capacity, double refillPerSecond) {
+            double interval = TimeUnit.SECONDS.toNanos(1) / Math.max(refillPerSecond, 1e-6);
+            return new Limit(name, method, pattern, (long) interval, (long) (interval * Math.max(0, capacity - 1)));
+        }
+
+        boolean matches(HttpServletRequest request, PathContainer path) {
+            return (method == null || method.isEmpty() || method.equalsIgnoreCase(request.getMethod()))
+                    && pattern.matches(path);
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !request.getRequestURI().startsWith("/api/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Limit limit = limitFor(request);
+        long wait = tryAcquire(buckets.get(client(request) + '|' + limit.name(), key -> new AtomicLong(Long.MIN_VALUE)),
+                limit);
+        if (wait > 0) {
+            rateRejections.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait);
+            return;
+        }
+
+        if (inFlight.incrementAndGet() > properties.maxConcurrent()) {
+            inFlight.decrementAndGet();
+            concurrencyRejections.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+            return;
+        }
+        Runnable release = releaseOnce();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted() && !isEventStream(response)) {
+                // streamed and deferred responses keep their slot until the async request completes
+                request.getAsyncContext().addListener(new AsyncRelease(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private Runnable releaseOnce() {
+        AtomicBoolean released = new AtomicBoolean();
+        return () -> {
+            if (released.compareAndSet(false, true)) {
+                inFlight.decrementAndGet();
+            }
+        };
+    }
+
+    // an SSE subscription stays open for as long as the client listens, it would hold its slot for good
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && MediaType.TEXT_EVENT_STREAM.isCompatibleWith(MediaType.parseMediaType(contentType));
+    }
+
+    // onComplete also follows a timeout or an error
+    private record AsyncRelease(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // a new async cycle replaces this listener registration, keep listening to it
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * @return 0 if the request may pass, otherwise the nanos until it would
+     */
+    private static long tryAcquire(AtomicLong bucket, Limit limit) {
+        while (true) {
+            long now = System.nanoTime();
+            long stored = bucket.get();
+            // theoretical arrival time: when the bucket would be full again, never in the past
+            long arrival = Math.max(stored, now);
+            long wait = arrival - limit.tolerance() - now;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(stored, arrival + limit.interval())) {
+                return 0;
+            }
+        }
+    }
+
+    private Limit limitFor(HttpServletRequest request) {
+        PathContainer path = PathContainer.parsePath(request.getRequestURI());
+        for (Limit limit : limits) {
+            if (limit.matches(request, path)) {
+                return limit;
+            }
+        }
+        return defaultLimit;
+    }
+
+    // the remote address is the client's own behind a proxy as well, see server.forward-headers-strategy
+    private String client(HttpServletRequest request) {
+        String key = request.getHeader(properties.clientHeader());
+        return key != null && properties.apiKeys().contains(key) ? "key:" + key : request.getRemoteAddr();
+    }
+
+    private static void reject(HttpServletResponse response, HttpStatus status, long waitNanos) {
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER,
+                Long.toString(Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1))));
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.crudop.config;
+
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Limits of {@link RateLimitFilter}, under {@code courses.rate-limit}.
+ *
+ * @param clientHeader header carrying the API key of the client
+ * @param apiKeys keys that get buckets of their own; a request with any other key, or none,
+ *        shares the bucket of its remote address, so made-up keys cannot escape the limit
+ * @param defaults bucket of every endpoint that has no limit of its own
+ * @param endpoints per endpoint buckets, matched in order
+ * @param maxConcurrent requests served at once before new ones are shed with 503
+ * @param maxClients client buckets kept in memory, the least recently used are dropped
+ */
+@ConfigurationProperties("courses.rate-limit")
+public record RateLimitProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("X-API-Key") String clientHeader,
+        @DefaultValue Set<String> apiKeys,
+        @DefaultValue Bucket defaults,
+        @DefaultValue List<Endpoint> endpoints,
+        @DefaultValue("90") int maxConcurrent,
+        @DefaultValue("100000") long maxClients) {
+
+    /**
+     * @param capacity requests a client may send in a burst
+     * @param refillPerSecond sustained requests per second
+     */
+    public record Bucket(@DefaultValue("100") long capacity, @DefaultValue("50") double refillPerSecond) {
+    }
+
+    /**
+     * @param method HTTP method, any method when empty
+     * @param pattern path pattern such as {@code /api/v1/courses/{id}}
+     */
+    public record Endpoint(String method, String pattern, long capacity, double refillPerSecond) {
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.crudop.config;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import com.mongodb.event.CommandFailedEvent;
+import com.mongodb.event.CommandListener;
+import com.mongodb.event.CommandSucceededEvent;
+
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Logs Mongo commands that take longer than the threshold. The command document
+ * is only valid while the driver reports the start of the command, so only its
+ * name, database and server are logged; the timings themselves are in the
+ * {@code mongodb.driver.commands} histogram.
+ */
+@Slf4j
+class SlowCommandListener implements CommandListener {
+
+    private final long thresholdNanos;
+
+    SlowCommandListener(Duration threshold) {
+        this.thresholdNanos = threshold.toNanos();
+    }
+
+    @Override
+    public void commandSucceeded(CommandSucceededEvent event) {
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (elapsed >= thresholdNanos) {
+            log.warn("Slow Mongo command {} on {} took {} ms (request {}, server {})", event.getCommandName(),
+                    event.getDatabaseName(), TimeUnit.NANOSECONDS.toMillis(elapsed), event.getRequestId(),
+                    event.getConnectionDescription().getServerAddress());
+        }
+    }
+
+    @Override
+    public void commandFailed(CommandFailedEvent event) {
+        long elapsed = event.getElapsedTime(TimeUnit.NANOSECONDS);
+        if (elapsed >= thresholdNanos) {
+            log.warn("Slow Mongo command {} on {} failed after {} ms (request {}): {}", event.getCommandName(),
+                    event.getDatabaseName(), TimeUnit.NANOSECONDS.toMillis(elapsed), event.getRequestId(),
+                    event.getThrowable().getMessage());
+        }
+    }
+}
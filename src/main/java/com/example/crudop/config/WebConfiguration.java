@@ -0,0 +1,30 @@
+package com.example.crudop.config;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import lombok.RequiredArgsConstructor;
+
+@Configuration
+@RequiredArgsConstructor
+public class WebConfiguration implements WebMvcConfigurer {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${courses.stream.flush-every:100}")
+    private int streamFlushEvery;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        // ahead of the Jackson converter, which would serialize a Stream without closing it
+        converters.add(0, new JsonStreamHttpMessageConverter(objectMapper, streamFlushEvery));
+        converters.add(new NdjsonHttpMessageConverter(objectMapper));
+    }
+
+}
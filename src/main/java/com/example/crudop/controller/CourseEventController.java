@@ -0,0 +1,60 @@
+package com.example.crudop.controller;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.crudop.request.CourseEvent;
+import com.example.crudop.service.CourseEventService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+
+/**
+ * Server-Sent Events feed of course changes, served by both the servlet and the
+ * reactive stack. Every event id is a resume token: a client that reconnects with
+ * {@code Last-Event-ID} (or {@code ?after=}) receives exactly the changes it missed.
+ */
+@RestController
+@RequestMapping("api/v1/courses/")
+@RequiredArgsConstructor
+public class CourseEventController {
+
+    private final CourseEventService service;
+
+    @Value("${courses.events.heartbeat:15s}")
+    private Duration heartbeat;
+
+    @GetMapping(value = "events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<Flux<ServerSentEvent<CourseEvent>>> events(@RequestParam(required = false) String after,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        Flux<CourseEvent> events;
+        try {
+            events = service.events(after != null ? after : lastEventId);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        return ResponseEntity.ok(events.publish(shared -> {
+            Flux<ServerSentEvent<CourseEvent>> feed = shared.map(event -> ServerSentEvent.builder(event)
+                    .id(event.token())
+                    .event(event.type().name())
+                    .build());
+            if (heartbeat == null || heartbeat.isZero()) {
+                return feed;
+            }
+            // comments keep idle connections open through proxies, they end with the feed
+            return feed.mergeWith(Flux.interval(heartbeat)
+                    .map(tick -> ServerSentEvent.<CourseEvent>builder().comment("heartbeat").build())
+                    .takeUntilOther(shared.then()));
+        }));
+    }
+}
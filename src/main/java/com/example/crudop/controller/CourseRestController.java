@@ -1,43 +1,218 @@
 package com.example.crudop.controller;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.util.DigestUtils;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.example.crudop.model.CompactCourse;
 import com.example.crudop.model.Course;
+import com.example.crudop.model.ScoredCourse;
+import com.example.crudop.request.BulkItemResult;
 import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.request.CoursePatchRequest;
 import com.example.crudop.request.CourseUpdateRequest;
+import com.example.crudop.request.PendingWrite;
+import com.example.crudop.request.WriteAck;
 import com.example.crudop.service.CourseService;
+import com.example.crudop.service.CourseWriteBehindService;
 
 import lombok.RequiredArgsConstructor;
 
 @RestController
+@Profile("!reactive")
 @RequestMapping("api/v1/courses/")
 @RequiredArgsConstructor
 public class CourseRestController {
 
     private final CourseService service;
+    private final CourseWriteBehindService writeBehind;
+    private final AsyncTaskExecutor applicationTaskExecutor;
+
+    @Value("${courses.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${courses.page.max-size:1000}")
+    private int maxPageSize;
+
+    @Value("${courses.stream.timeout-ms:600000}")
+    private long streamTimeout;
 
     @RequestMapping("hello")
     public String hello() {
         return "hello from Course REST controller 📚";
     }
 
+    /**
+     * Returns one page of courses ordered by id. When more courses may follow,
+     * the {@code Link} header carries the {@code rel="next"} url with the cursor.
+     */
     @GetMapping("")
-    public List<Course> getAllCourses() {
-        return service.getAll();
+    public ResponseEntity<List<Course>> getAllCourses(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        int size = pageSize(limit);
+        List<Course> page = service.getPage(after, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            response.header(HttpHeaders.LINK, nextLink(page.get(page.size() - 1).getId(), size));
+        }
+
+        StringBuilder versions = new StringBuilder();
+        Instant lastModified = null;
+        for (Course course : page) {
+            versions.append(etag(course));
+            Instant modified = lastModified(course);
+            if (modified != null && (lastModified == null || modified.isAfter(lastModified))) {
+                lastModified = modified;
+            }
+        }
+        // weak, as a page is not byte-identical once compressed; Tomcat does not compress strong-tagged responses
+        response.eTag("W/\"" + DigestUtils.md5DigestAsHex(versions.toString().getBytes(StandardCharsets.UTF_8)) + "\"");
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+        return response.body(page);
+    }
+
+    /**
+     * The whole catalog as one JSON array, serialized while the Mongo cursor is
+     * read, so the first courses are on the wire before the last are loaded.
+     */
+    @GetMapping(value = "all", produces = MediaType.APPLICATION_JSON_VALUE)
+    public Stream<Course> getWholeCatalog() {
+        return service.streamAll();
+    }
+
+    /**
+     * Sparse fieldset page, e.g. {@code ?fields=name,level}: only these fields (and
+     * the id) are read from Mongo and written to the response.
+     */
+    @GetMapping(value = "", params = "fields")
+    public ResponseEntity<List<Map<String, Object>>> getAllCourses(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit, @RequestParam List<String> fields) {
+        int size = pageSize(limit);
+        List<Map<String, Object>> page;
+        try {
+            page = service.getPage(after, size, fields);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            response.header(HttpHeaders.LINK, nextLink((String) page.get(page.size() - 1).get("id"), size));
+        }
+        return response.body(page);
+    }
+
+    /**
+     * Page of id, name, language and level only, for list views.
+     */
+    @GetMapping("summaries")
+    public ResponseEntity<List<CompactCourse>> getSummaries(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit) {
+        int size = pageSize(limit);
+        List<CompactCourse> page = service.getSummaryPage(after, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.size() == size) {
+            response.header(HttpHeaders.LINK, nextLink(page.get(page.size() - 1).id(), size));
+        }
+        return response.body(page);
     }
 
+    /**
+     * Streams the whole catalog as NDJSON straight from a Mongo cursor, one
+     * course per line, without collecting it in memory first.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> streamAllCourses() {
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(streamTimeout);
+        applicationTaskExecutor.execute(() -> {
+            try (Stream<Course> courses = service.streamAll()) {
+                courses.forEach(course -> {
+                    try {
+                        emitter.send(course, MediaType.APPLICATION_JSON);
+                        emitter.send("\n", MediaType.TEXT_PLAIN);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                emitter.complete();
+            } catch (RuntimeException e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    @GetMapping("filter")
+    public List<CompactCourse> filter(@RequestParam(required = false) String language,
+            @RequestParam(required = false) String level,
+            @RequestParam(required = false) String namePrefix,
+            @RequestParam(required = false) Integer limit) {
+        return service.filter(language, level, namePrefix, pageSize(limit));
+    }
+
+    @GetMapping("search")
+    public List<ScoredCourse> search(@RequestParam String q,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(required = false) Integer limit) {
+        return service.search(q, Math.max(0, page), pageSize(limit));
+    }
+
+    /**
+     * Sends the course with a strong {@code ETag} and {@code Last-Modified};
+     * a matching {@code If-None-Match} or {@code If-Modified-Since} gets a bodiless 304.
+     */
     @GetMapping("{id}")
-    public Course getOne(@PathVariable String id) {
-        return service.getById(id);
+    public ResponseEntity<Course> getOne(@PathVariable String id) {
+        return withValidators(service.getById(id));
+    }
+
+    // served from the cached course, which is cheaper than a projected read from Mongo
+    @GetMapping(value = "{id}", params = "fields")
+    public ResponseEntity<Map<String, Object>> getOne(@PathVariable String id, @RequestParam List<String> fields) {
+        try {
+            return ResponseEntity.ok(service.selectFields(service.getById(id), fields));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
     }
 
     @PostMapping
@@ -45,35 +220,229 @@ public class CourseRestController {
         return service.create(course);
     }
 
+    /**
+     * Replaces the course if it still has the version of the body, or of the
+     * {@code If-Match} tag when one is sent. An outdated body version is answered
+     * with 409, an outdated {@code If-Match} with 412, and a request with neither
+     * with 428. {@code If-Match: *} opts out and overwrites whatever is stored.
+     */
     @PutMapping
-    public Course update(@RequestBody Course course) {
-        return service.update(course);
+    public ResponseEntity<Course> update(@RequestBody Course course,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null && course.getVersion() == null) {
+            return preconditionRequired();
+        }
+        if (ifMatch == null || anyVersion(ifMatch)) {
+            return withValidators(service.update(course));
+        }
+        Long version = course.getId() == null ? null : matchedVersion(ifMatch, course.getId());
+        if (version == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        course.setVersion(version);
+        return preconditioned(() -> service.update(course));
+    }
+
+    /**
+     * Applies the given fields if the course still has the {@code If-Match}
+     * version, 412 otherwise. Without {@code If-Match} the answer is 428,
+     * {@code If-Match: *} patches whatever is stored.
+     */
+    @PatchMapping("{id}")
+    public ResponseEntity<Void> patch(@PathVariable String id, @RequestBody CoursePatchRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            return preconditionRequired();
+        }
+        if (anyVersion(ifMatch)) {
+            return service.patch(id, request) ? ResponseEntity.noContent().build() : ResponseEntity.notFound().build();
+        }
+        Long version = matchedVersion(ifMatch, id);
+        try {
+            return version != null && service.patch(id, request, version)
+                    ? ResponseEntity.noContent().build()
+                    : ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
     }
 
     @DeleteMapping("{id}")
-    public void delete(@PathVariable String id) {
-        service.delete(id);
+    public ResponseEntity<Void> delete(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null || anyVersion(ifMatch)) {
+            service.delete(id);
+            return ResponseEntity.ok().build();
+        }
+        Long version = matchedVersion(ifMatch, id);
+        try {
+            return version != null && service.delete(id, version)
+                    ? ResponseEntity.ok().build()
+                    : ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
     }
 
     // DTO
+    /**
+     * Creates the course right away, or through the write-behind queue when
+     * {@code courses.write-behind.enabled} is set. There {@code ack=QUEUED}
+     * answers 202 once the course is queued and {@code ack=PERSISTED} answers
+     * once its batch is written, or 202 if that takes longer than the drain
+     * timeout; a full queue answers 503 with {@code Retry-After}.
+     */
     @PostMapping("/dto")
-    public Course insert(@RequestBody CourseCreateRequest request) {
-        return service.create(request);
+    public ResponseEntity<Course> insert(@RequestBody CourseCreateRequest request,
+            @RequestParam(defaultValue = "PERSISTED") WriteAck ack) {
+        if (!writeBehind.isEnabled()) {
+            return ResponseEntity.ok(service.create(request));
+        }
+        PendingWrite pending;
+        try {
+            pending = writeBehind.submit(request);
+        } catch (RejectedExecutionException e) {
+            return queueFull();
+        }
+        if (ack == WriteAck.QUEUED) {
+            return ResponseEntity.accepted().body(pending.course());
+        }
+        try {
+            return ResponseEntity.ok(writeBehind.awaitPersisted(pending));
+        } catch (TimeoutException e) {
+            // still queued under its id, a retry would create a second course
+            return ResponseEntity.accepted().body(pending.course());
+        } catch (RejectedExecutionException e) {
+            return queueFull();
+        }
     }
 
+    /**
+     * Like the entity {@code PUT}: the version comes from the request body or
+     * from {@code If-Match}, an outdated one is answered with 409 or 412 and a
+     * missing one with 428, unless {@code If-Match: *} is sent.
+     */
     @PutMapping("/dto")
-    public Course update(@RequestBody CourseUpdateRequest request) {
-        Course existing = service.getById(request.id());
-        if (existing == null) {
-            return null;
+    public ResponseEntity<Course> update(@RequestBody CourseUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null && request.version() == null) {
+            return preconditionRequired();
+        }
+        if (ifMatch == null || anyVersion(ifMatch)) {
+            return withValidators(service.update(request));
+        }
+        Long version = request.id() == null ? null : matchedVersion(ifMatch, request.id());
+        if (version == null) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+        return preconditioned(() -> service.update(new CourseUpdateRequest(request.id(), request.name(),
+                request.language(), request.level(), request.description(), version)));
+    }
+
+    // Bulk
+    @PostMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<BulkItemResult> createAll(@RequestBody List<CourseCreateRequest> requests,
+            @RequestParam(defaultValue = "true") boolean ordered) {
+        return service.createAll(requests, ordered);
+    }
+
+    @PutMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<BulkItemResult> updateAll(@RequestBody List<CourseUpdateRequest> requests,
+            @RequestParam(defaultValue = "true") boolean ordered) {
+        return service.updateAll(requests, ordered);
+    }
+
+    @DeleteMapping(value = "/bulk", consumes = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public List<BulkItemResult> deleteAll(@RequestBody List<String> ids,
+            @RequestParam(defaultValue = "true") boolean ordered) {
+        return service.deleteAll(ids, ordered);
+    }
+
+    private static String nextLink(String lastId, int size) {
+        String next = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("after", lastId)
+                .replaceQueryParam("limit", size)
+                .toUriString();
+        return "<" + next + ">; rel=\"next\"";
+    }
+
+    private static ResponseEntity<Course> queueFull() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+    }
+
+    private ResponseEntity<Course> withValidators(Course course) {
+        if (course == null) {
+            return ResponseEntity.ok().build();
         }
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok().eTag(etag(course));
+        Instant lastModified = lastModified(course);
+        if (lastModified != null) {
+            response.lastModified(lastModified);
+        }
+        return response.body(course);
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> conflict(OptimisticLockingFailureException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+        problem.setTitle("Course was modified concurrently");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problem);
+    }
+
+    // courses.search.max-time ran out; the next attempt may find a less loaded server
+    @ExceptionHandler(QueryTimeoutException.class)
+    public ResponseEntity<ProblemDetail> timedOut(QueryTimeoutException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.SERVICE_UNAVAILABLE, e.getMessage());
+        problem.setTitle("Query timed out");
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").body(problem);
+    }
 
-        existing.setName(request.name());
-        existing.setLanguage(request.language());
-        existing.setLevel(request.level());
-        existing.setDescription(request.description());
-        existing.setLastModifiedDate(java.time.LocalDateTime.now());
+    // an If-Match write that loses the race is a failed precondition, not a conflict
+    private ResponseEntity<Course> preconditioned(Supplier<Course> update) {
+        try {
+            Course updated = update.get();
+            return updated == null ? ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build() : withValidators(updated);
+        } catch (OptimisticLockingFailureException e) {
+            return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+        }
+    }
+
+    // a blind overwrite must be asked for, so a client that forgot the version cannot lose updates
+    private static <T> ResponseEntity<T> preconditionRequired() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+    }
+
+    private static boolean anyVersion(String ifMatch) {
+        return "*".equals(ifMatch.trim());
+    }
+
+    // "<id>-<version>", courses stored before versioning count as version 0
+    private static String etag(Course course) {
+        return "\"" + course.getId() + "-" + (course.getVersion() == null ? 0 : course.getVersion()) + "\"";
+    }
+
+    private static Instant lastModified(Course course) {
+        LocalDateTime modified = course.getLastModifiedDate() != null ? course.getLastModifiedDate() : course.getCreatedDate();
+        return modified == null ? null : modified.atZone(ZoneId.systemDefault()).toInstant();
+    }
+
+    // strong comparison: weak or foreign tags never match
+    private static Long matchedVersion(String ifMatch, String id) {
+        String prefix = "\"" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith(prefix) && candidate.endsWith("\"")) {
+                try {
+                    return Long.parseLong(candidate.substring(prefix.length(), candidate.length() - 1));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
 
-        return service.update(existing);
+    private int pageSize(Integer limit) {
+        return limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
     }
 }
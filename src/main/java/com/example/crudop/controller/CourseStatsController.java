@@ -0,0 +1,61 @@
+package com.example.crudop.controller;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.example.crudop.request.CourseStatistics;
+import com.example.crudop.request.DailyCount;
+import com.example.crudop.service.CourseStatsService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Catalog statistics for dashboards, so they no longer need to download the
+ * whole catalog to count it.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("api/v1/courses/stats")
+@RequiredArgsConstructor
+public class CourseStatsController {
+
+    private final CourseStatsService service;
+
+    @Value("${courses.stats.ttl:30s}")
+    private Duration ttl;
+
+    @Value("${courses.stats.max-days:366}")
+    private int maxDays;
+
+    @GetMapping
+    public ResponseEntity<CourseStatistics> counts() {
+        return ResponseEntity.ok().cacheControl(CacheControl.maxAge(ttl)).body(service.counts());
+    }
+
+    /**
+     * Courses created per day, the last 30 days by default. Both bounds are inclusive.
+     */
+    @GetMapping("created")
+    public ResponseEntity<List<DailyCount>> createdPerDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        LocalDate end = to == null ? LocalDate.now() : to;
+        LocalDate start = from == null ? end.minusDays(29) : from;
+        if (start.isAfter(end) || ChronoUnit.DAYS.between(start, end) >= maxDays) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok().cacheControl(CacheControl.maxAge(ttl)).body(service.createdPerDay(start, end));
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.crudop.controller;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPOutputStream;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.example.crudop.request.ImportReport;
+import com.example.crudop.request.TransferFormat;
+import com.example.crudop.service.CourseTransferService;
+
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Bulk export and import of the whole catalog, for moving it between environments.
+ * <pre>
+ * curl -o courses.ndjson.gz '.../api/v1/courses/export?gzip=true'
+ * curl -H 'Content-Type: application/gzip' --data-binary @courses.ndjson.gz '.../api/v1/courses/import?importId=prod-copy'
+ * </pre>
+ * Imports must not be sent as form data, the servlet container would consume the body as parameters.
+ */
+@RestController
+@Profile("!reactive")
+@RequestMapping("api/v1/courses/")
+@RequiredArgsConstructor
+public class CourseTransferController {
+
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv");
+    private static final MediaType GZIP = MediaType.parseMediaType("application/gzip");
+
+    private final CourseTransferService service;
+
+    /**
+     * Streams the catalog as a file download, gzip compressed on request.
+     */
+    @GetMapping("export")
+    public ResponseEntity<StreamingResponseBody> export(@RequestParam(defaultValue = "NDJSON") TransferFormat format,
+            @RequestParam(defaultValue = "false") boolean gzip) {
+        String filename = "courses." + format.name().toLowerCase() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> {
+            if (!gzip) {
+                service.export(out, format);
+                return;
+            }
+            GZIPOutputStream compressed = new GZIPOutputStream(out, 1 << 16);
+            service.export(compressed, format);
+            compressed.finish();
+        };
+
+        return ResponseEntity.ok()
+                .contentType(gzip ? GZIP : format == TransferFormat.CSV ? CSV : MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    /**
+     * Imports a file in the format of {@link #export}, plain or gzip compressed.
+     * Answers with the final report once the whole body is read; 400 if the
+     * CSV header is unusable and 503 if Mongo failed midway, after which the
+     * same request with the returned {@code importId} resumes from the last checkpoint.
+     */
+    @PostMapping("import")
+    public ResponseEntity<ImportReport> importCourses(InputStream body,
+            @RequestParam(defaultValue = "NDJSON") TransferFormat format,
+            @RequestParam(required = false) String importId) throws IOException {
+        ImportReport report;
+        try {
+            report = service.importCourses(body, format, importId);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        if (report.status() != ImportReport.Status.FAILED) {
+            return ResponseEntity.ok(report);
+        }
+        return ResponseEntity.status(report.invalidInput() ? HttpStatus.BAD_REQUEST : HttpStatus.SERVICE_UNAVAILABLE)
+                .body(report);
+    }
+
+    @GetMapping("import/{importId}")
+    public ResponseEntity<ImportReport> importProgress(@PathVariable String importId) {
+        ImportReport report = service.progress(importId);
+        return report == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(report);
+    }
+}
@@ -0,0 +1,224 @@
+package com.example.crudop.controller;
+
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ProblemDetail;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.request.CoursePatchRequest;
+import com.example.crudop.request.CourseUpdateRequest;
+import com.example.crudop.service.ReactiveCourseService;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@Profile("reactive")
+@RequestMapping("api/v1/courses/")
+@RequiredArgsConstructor
+public class ReactiveCourseRestController {
+
+    private final ReactiveCourseService service;
+
+    @Value("${courses.page.default-size:100}")
+    private int defaultPageSize;
+
+    @Value("${courses.page.max-size:1000}")
+    private int maxPageSize;
+
+    @GetMapping("hello")
+    public String hello() {
+        return "hello from reactive Course REST controller 📚";
+    }
+
+    @GetMapping("")
+    public Mono<ResponseEntity<List<Course>>> getAllCourses(@RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit, ServerHttpRequest request) {
+        int size = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        return service.getPage(after, size).collectList().map(page -> {
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (page.size() == size) {
+                String next = UriComponentsBuilder.fromUri(request.getURI())
+                        .replaceQueryParam("after", page.get(page.size() - 1).getId())
+                        .replaceQueryParam("limit", size)
+                        .toUriString();
+                response.header(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+            }
+            return response.body(page);
+        });
+    }
+
+    /**
+     * Streams the whole catalog as NDJSON; the cursor is drained only as fast as
+     * the client reads.
+     */
+    @GetMapping(value = "", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<Course> streamAllCourses() {
+        return service.streamAll();
+    }
+
+    // with an ETag for If-Match, like the servlet controller
+    @GetMapping("{id}")
+    public Mono<ResponseEntity<Course>> getOne(@PathVariable String id) {
+        return withEtag(service.getById(id));
+    }
+
+    @PostMapping
+    public Mono<Course> create(@RequestBody Course course) {
+        return service.create(course);
+    }
+
+    /**
+     * Same rules as {@link CourseRestController}: the version comes from the body
+     * or {@code If-Match}, an outdated one is answered with 409 or 412, a missing
+     * one with 428, and {@code If-Match: *} overwrites whatever is stored.
+     */
+    @PutMapping
+    public Mono<ResponseEntity<Course>> update(@RequestBody Course course,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null && course.getVersion() == null) {
+            return Mono.just(preconditionRequired());
+        }
+        if (ifMatch == null || anyVersion(ifMatch)) {
+            return withEtag(service.update(course));
+        }
+        Long version = course.getId() == null ? null : matchedVersion(ifMatch, course.getId());
+        if (version == null) {
+            return Mono.just(preconditionFailed());
+        }
+        course.setVersion(version);
+        return preconditioned(service.update(course));
+    }
+
+    @PatchMapping("{id}")
+    public Mono<ResponseEntity<Void>> patch(@PathVariable String id, @RequestBody CoursePatchRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null) {
+            return Mono.just(preconditionRequired());
+        }
+        if (anyVersion(ifMatch)) {
+            return service.patch(id, request)
+                    .map(found -> found ? ResponseEntity.noContent().<Void>build() : ResponseEntity.notFound().<Void>build());
+        }
+        Long version = matchedVersion(ifMatch, id);
+        if (version == null) {
+            return Mono.just(preconditionFailed());
+        }
+        return service.patch(id, request, version)
+                .map(found -> found ? ResponseEntity.noContent().<Void>build() : ReactiveCourseRestController.<Void>preconditionFailed())
+                .onErrorResume(OptimisticLockingFailureException.class, e -> Mono.just(preconditionFailed()));
+    }
+
+    @DeleteMapping("{id}")
+    public Mono<ResponseEntity<Void>> delete(@PathVariable String id,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null || anyVersion(ifMatch)) {
+            return service.delete(id).thenReturn(ResponseEntity.ok().<Void>build());
+        }
+        Long version = matchedVersion(ifMatch, id);
+        if (version == null) {
+            return Mono.just(preconditionFailed());
+        }
+        return service.delete(id, version)
+                .map(found -> found ? ResponseEntity.ok().<Void>build() : ReactiveCourseRestController.<Void>preconditionFailed())
+                .onErrorResume(OptimisticLockingFailureException.class, e -> Mono.just(preconditionFailed()));
+    }
+
+    // DTO
+    @PostMapping("/dto")
+    public Mono<Course> insert(@RequestBody CourseCreateRequest request) {
+        return service.create(request);
+    }
+
+    @PutMapping("/dto")
+    public Mono<ResponseEntity<Course>> update(@RequestBody CourseUpdateRequest request,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        if (ifMatch == null && request.version() == null) {
+            return Mono.just(preconditionRequired());
+        }
+        if (ifMatch == null || anyVersion(ifMatch)) {
+            return withEtag(service.update(request));
+        }
+        Long version = request.id() == null ? null : matchedVersion(ifMatch, request.id());
+        if (version == null) {
+            return Mono.just(preconditionFailed());
+        }
+        return preconditioned(service.update(new CourseUpdateRequest(request.id(), request.name(),
+                request.language(), request.level(), request.description(), version)));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ProblemDetail> conflict(OptimisticLockingFailureException e) {
+        ProblemDetail problem = ProblemDetail.forStatusAndDetail(HttpStatus.CONFLICT, e.getMessage());
+        problem.setTitle("Course was modified concurrently");
+        return ResponseEntity.status(HttpStatus.CONFLICT).body(problem);
+    }
+
+    // an empty result stays a bodiless 200, as before the ETag was added
+    private static Mono<ResponseEntity<Course>> withEtag(Mono<Course> course) {
+        return course.map(found -> ResponseEntity.ok().eTag(etag(found)).body(found))
+                .defaultIfEmpty(ResponseEntity.ok().build());
+    }
+
+    // an If-Match write that loses the race is a failed precondition, not a conflict
+    private static Mono<ResponseEntity<Course>> preconditioned(Mono<Course> update) {
+        return update.map(updated -> ResponseEntity.ok().eTag(etag(updated)).body(updated))
+                .defaultIfEmpty(preconditionFailed())
+                .onErrorResume(OptimisticLockingFailureException.class, e -> Mono.just(preconditionFailed()));
+    }
+
+    private static <T> ResponseEntity<T> preconditionRequired() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_REQUIRED).build();
+    }
+
+    private static <T> ResponseEntity<T> preconditionFailed() {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED).build();
+    }
+
+    private static boolean anyVersion(String ifMatch) {
+        return "*".equals(ifMatch.trim());
+    }
+
+    // "<id>-<version>", the same tags as the servlet controller
+    private static String etag(Course course) {
+        return "\"" + course.getId() + "-" + (course.getVersion() == null ? 0 : course.getVersion()) + "\"";
+    }
+
+    private static Long matchedVersion(String ifMatch, String id) {
+        String prefix = "\"" + id + "-";
+        for (String tag : ifMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.startsWith(prefix) && candidate.endsWith("\"")) {
+                try {
+                    return Long.parseLong(candidate.substring(prefix.length(), candidate.length() - 1));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+}
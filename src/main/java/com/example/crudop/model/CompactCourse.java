@@ -0,0 +1,11 @@
+package com.example.crudop.model;
+
+/**
+ * Listing projection of {@link Course} without the description. Only the
+ * {@code language_level_name} index holds all of its fields, so only lookups
+ * filtered by both language and level are index-covered; the other filters
+ * still fetch the matching documents, just without the description.
+ */
+public record CompactCourse(String id, String name, String language, String level) {
+
+}
@@ -5,6 +5,9 @@ import java.time.LocalDateTime;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.Id;
 import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.index.CompoundIndexes;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import lombok.AllArgsConstructor;
@@ -14,13 +17,21 @@ import lombok.ToString;
 
 @Data
 @ToString
-@Document(collection = "courses")
+@Document(collection = "courses", language = "none")
+@CompoundIndexes({
+        @CompoundIndex(name = "language_level_name", def = "{'language': 1, 'level': 1, 'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "language_name", def = "{'language': 1, 'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "level_name", def = "{'level': 1, 'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "name", def = "{'name': 1, '_id': 1}"),
+        @CompoundIndex(name = "createdDate", def = "{'createdDate': 1}")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 public class Course {
 
     @Id
     private String id;
+    // text indexed together with description, see MongoConfiguration#courseTextIndex
     private String name;
     private String language;
     private String level;
@@ -32,6 +43,15 @@ public class Course {
     @LastModifiedDate
     private LocalDateTime lastModifiedDate;
 
+    // bumped by every write, updates only apply to the version they were based on
+    @Version
+    private Long version;
+
+    public Course(String id, String name, String language, String level, String description,
+            LocalDateTime createdDate, LocalDateTime lastModifiedDate) {
+        this(id, name, language, level, description, createdDate, lastModifiedDate, null);
+    }
+
     public Course(String name, String language, String level, String description) {
         this.name = name;
         this.language = language;
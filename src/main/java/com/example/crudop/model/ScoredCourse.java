@@ -0,0 +1,11 @@
+package com.example.crudop.model;
+
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.mapping.TextScore;
+
+/**
+ * Full-text search hit: the listing fields of a {@link Course} with its relevance score.
+ */
+public record ScoredCourse(@Id String id, String name, String language, String level, @TextScore Float score) {
+
+}
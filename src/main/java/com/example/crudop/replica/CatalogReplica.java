@@ -0,0 +1,199 @@
+package com.example.crudop.replica;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import com.example.crudop.model.Course;
+
+/**
+ * A {@link ReplicaFile} snapshot plus the changes seen since it was written.
+ * Changes are kept on the heap until {@link #compact} merges them into a new
+ * snapshot, so the heap only holds what changed recently.
+ */
+public final class CatalogReplica {
+
+    private final Path path;
+    private volatile ReplicaFile snapshot;
+    // normalized id -> latest change, a Delta without course is a delete
+    private final Map<String, Delta> changes = new ConcurrentHashMap<>();
+
+    // identity equality, so compaction only drops the exact change it merged
+    private static final class Delta {
+        private final Course course;
+
+        private Delta(Course course) {
+            this.course = course;
+        }
+    }
+
+    public CatalogReplica(Path path) {
+        this.path = path;
+    }
+
+    /**
+     * Maps the file at the replica path if one was left by a previous run.
+     *
+     * @return whether a snapshot was loaded
+     */
+    public boolean load() throws IOException {
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        snapshot = ReplicaFile.open(path);
+        return true;
+    }
+
+    public boolean isLoaded() {
+        return snapshot != null;
+    }
+
+    /**
+     * @return the change feed position of the snapshot, {@code null} if unknown
+     */
+    public String resumeToken() {
+        ReplicaFile current = snapshot;
+        return current == null ? null : current.resumeToken();
+    }
+
+    public Course get(String id) {
+        Delta change = changes.get(ReplicaFile.normalize(id));
+        if (change != null) {
+            return change.course;
+        }
+        ReplicaFile current = snapshot;
+        return current == null ? null : current.find(id);
+    }
+
+    /**
+     * Every course in {@link ReplicaFile#ID_ORDER}, decoded from the snapshot as
+     * the stream is consumed. Only the recorded changes are copied up front.
+     */
+    public Stream<Course> stream() {
+        Iterator<Course> merged = new MergingIterator(snapshotIterator(), sortedChanges());
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(merged,
+                Spliterator.ORDERED | Spliterator.NONNULL), false);
+    }
+
+    /**
+     * Records the course, unless a newer version of it is known already: the
+     * change feed may deliver a write after this instance recorded a later one.
+     */
+    public void put(Course course) {
+        Course known = get(course.getId());
+        if (known != null && known.getVersion() != null && course.getVersion() != null
+                && known.getVersion() > course.getVersion()) {
+            return;
+        }
+        changes.put(ReplicaFile.normalize(course.getId()), new Delta(course));
+    }
+
+    public void remove(String id) {
+        changes.put(ReplicaFile.normalize(id), new Delta(null));
+    }
+
+    public int pendingChanges() {
+        return changes.size();
+    }
+
+    /**
+     * Replaces the snapshot with one written from {@code courses}, sorted by
+     * {@link ReplicaFile#ID_ORDER}. Changes recorded before the reload are in
+     * the new snapshot and dropped, those recorded meanwhile stay on top of it.
+     */
+    public long reload(Iterator<Course> courses, String resumeToken) throws IOException {
+        Map<String, Delta> before = Map.copyOf(changes);
+        long count = ReplicaFile.write(path, courses, resumeToken);
+        snapshot = ReplicaFile.open(path);
+        before.forEach(changes::remove);
+        return count;
+    }
+
+    /**
+     * Writes the snapshot merged with the recorded changes as the new snapshot.
+     * Changes that arrive during the merge are kept for the next one.
+     *
+     * @param resumeToken change feed position of the last recorded change
+     */
+    public long compact(String resumeToken) throws IOException {
+        NavigableMap<String, Delta> merged = sortedChanges();
+        long count = ReplicaFile.write(path, new MergingIterator(snapshotIterator(), merged), resumeToken);
+        snapshot = ReplicaFile.open(path);
+        merged.forEach(changes::remove);
+        return count;
+    }
+
+    private Iterator<Course> snapshotIterator() {
+        ReplicaFile current = snapshot;
+        return current == null ? Collections.emptyIterator() : current.iterator();
+    }
+
+    private NavigableMap<String, Delta> sortedChanges() {
+        NavigableMap<String, Delta> sorted = new TreeMap<>(ReplicaFile.ID_ORDER);
+        sorted.putAll(changes);
+        return sorted;
+    }
+
+    // walks the snapshot and the sorted changes side by side, changes win
+    private static final class MergingIterator implements Iterator<Course> {
+
+        private final Iterator<Course> base;
+        private final Iterator<Map.Entry<String, Delta>> changes;
+        private Course nextBase;
+        private Map.Entry<String, Delta> nextChange;
+        private Course next;
+
+        private MergingIterator(Iterator<Course> base, NavigableMap<String, Delta> changes) {
+            this.base = base;
+            this.changes = changes.entrySet().iterator();
+            this.nextBase = base.hasNext() ? base.next() : null;
+            this.nextChange = this.changes.hasNext() ? this.changes.next() : null;
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Course next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            Course current = next;
+            advance();
+            return current;
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && (nextBase != null || nextChange != null)) {
+                int cmp = nextBase == null ? 1
+                        : nextChange == null ? -1
+                        : ReplicaFile.ID_ORDER.compare(nextBase.getId(), nextChange.getKey());
+                if (cmp < 0) {
+                    next = nextBase;
+                    nextBase = base.hasNext() ? base.next() : null;
+                } else {
+                    if (cmp == 0) {
+                        nextBase = base.hasNext() ? base.next() : null;
+                    }
+                    next = nextChange.getValue().course; // null for a delete, skipped
+                    nextChange = changes.hasNext() ? changes.next() : null;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,355 @@
+package com.example.crudop.replica;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import com.example.crudop.model.Course;
+
+/**
+ * Read-only, memory-mapped snapshot of the catalog. Layout:
+ * <pre>
+ * header   magic, format, course count, index offset, resume token  (HEADER_SIZE bytes)
+ * records  [int length][id][name][language][level][description][created][modified][version] ...
+ * index    one long record offset per course
+ * </pre>
+ * Records are written in id order, so the index is sorted as well and a lookup
+ * is a binary search over it. Courses only exist on the heap while they are
+ * being read; the file itself lives in the page cache.
+ * <p>
+ * Ids are ordered the way Mongo sorts {@code _id}: plain strings before
+ * ObjectIds, each by their bytes. That way a snapshot can be streamed straight
+ * from an {@code _id}-sorted cursor.
+ */
+public final class ReplicaFile {
+
+    /** Ids in the order of the index, see {@link #normalize(String)}. */
+    public static final Comparator<String> ID_ORDER = (a, b) -> compareIds(utf8(normalize(a)), utf8(normalize(b)));
+
+    private static final int MAGIC = 0x43525350; // "CRSP"
+    private static final int FORMAT = 1;
+    private static final int MAX_TOKEN = 1024;
+    private static final int HEADER_SIZE = 2048;
+    // a single MappedByteBuffer stops at 2 GB, larger files are mapped in chunks
+    private static final long CHUNK = 1L << 30;
+
+    private final MappedByteBuffer[] chunks;
+    private final long count;
+    private final long indexOffset;
+    private final String resumeToken;
+
+    private ReplicaFile(MappedByteBuffer[] chunks) {
+        this.chunks = chunks;
+        if (readInt(0) != MAGIC || readInt(4) != FORMAT) {
+            throw new IllegalStateException("Not a course replica file");
+        }
+        this.count = readLong(8);
+        this.indexOffset = readLong(16);
+        int tokenLength = readInt(24);
+        this.resumeToken = tokenLength < 0 ? null : new String(read(28, tokenLength), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Maps an existing replica file.
+     *
+     * @throws IllegalStateException if the file is not a replica file
+     */
+    public static ReplicaFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_SIZE) {
+                throw new IllegalStateException("Not a course replica file");
+            }
+            MappedByteBuffer[] chunks = new MappedByteBuffer[(int) ((size + CHUNK - 1) / CHUNK)];
+            for (int i = 0; i < chunks.length; i++) {
+                long position = i * CHUNK;
+                chunks[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(CHUNK, size - position));
+            }
+            // the mapping stays valid after the channel is closed
+            return new ReplicaFile(chunks);
+        }
+    }
+
+    /**
+     * Writes {@code courses}, which must be sorted by {@link #ID_ORDER}, into a
+     * new file and atomically moves it over {@code target}. Readers that mapped
+     * the previous file keep reading it until they reopen.
+     *
+     * @param resumeToken change feed position the snapshot is current up to, may be {@code null}
+     * @return the number of courses written
+     * @throws IllegalArgumentException if the courses are not sorted or an id repeats
+     */
+    public static long write(Path target, Iterator<Course> courses, String resumeToken) throws IOException {
+        byte[] token = resumeToken == null ? null : utf8(resumeToken);
+        if (token != null && token.length > MAX_TOKEN) {
+            token = null; // too long to keep, the next start reloads instead of resuming
+        }
+
+        Path dir = target.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path records = Files.createTempFile(dir, target.getFileName().toString(), ".tmp");
+        Path index = Files.createTempFile(dir, target.getFileName().toString(), ".idx");
+        try {
+            long count = 0;
+            long position = HEADER_SIZE;
+            try (FileChannel channel = FileChannel.open(records, StandardOpenOption.WRITE)) {
+                channel.position(HEADER_SIZE);
+                try (DataOutputStream recordOut = new DataOutputStream(new BufferedOutputStream(uncloseable(channel), 1 << 16));
+                        DataOutputStream indexOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(index), 1 << 16))) {
+                    ByteArrayOutputStream buffer = new ByteArrayOutputStream(512);
+                    DataOutputStream record = new DataOutputStream(buffer);
+                    byte[] previous = null;
+                    while (courses.hasNext()) {
+                        Course course = courses.next();
+                        byte[] id = utf8(normalize(course.getId()));
+                        if (previous != null && compareIds(previous, id) >= 0) {
+                            throw new IllegalArgumentException("Courses are not in replica id order at " + course.getId());
+                        }
+                        previous = id;
+
+                        buffer.reset();
+                        encode(record, id, course);
+                        indexOut.writeLong(position);
+                        recordOut.writeInt(buffer.size());
+                        buffer.writeTo(recordOut);
+                        position += Integer.BYTES + buffer.size();
+                        count++;
+                    }
+                }
+
+                // records end where the index starts
+                try (FileChannel indexChannel = FileChannel.open(index, StandardOpenOption.READ)) {
+                    long size = indexChannel.size();
+                    for (long copied = 0; copied < size;) {
+                        copied += indexChannel.transferTo(copied, size - copied, channel);
+                    }
+                }
+
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE)
+                        .putInt(MAGIC).putInt(FORMAT).putLong(count).putLong(position)
+                        .putInt(token == null ? -1 : token.length);
+                if (token != null) {
+                    header.put(token);
+                }
+                header.clear();
+                while (header.hasRemaining()) {
+                    channel.write(header, header.position());
+                }
+                channel.force(false);
+            }
+            Files.move(records, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return count;
+        } finally {
+            Files.deleteIfExists(records);
+            Files.deleteIfExists(index);
+        }
+    }
+
+    /**
+     * Canonical form of an id: ObjectId hex is lowercased, like Mongo returns it.
+     */
+    public static String normalize(String id) {
+        return isObjectId(utf8(id)) ? id.toLowerCase() : id;
+    }
+
+    public long size() {
+        return count;
+    }
+
+    public String resumeToken() {
+        return resumeToken;
+    }
+
+    /**
+     * @return the course, or {@code null} if the snapshot does not contain it
+     */
+    public Course find(String id) {
+        byte[] key = utf8(normalize(id));
+        long low = 0;
+        long high = count - 1;
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            long offset = readLong(indexOffset + mid * Long.BYTES);
+            int cmp = compareIds(readId(offset), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return decode(offset);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Reads every course in id order, one at a time.
+     */
+    public Iterator<Course> iterator() {
+        return new Iterator<>() {
+            private long offset = HEADER_SIZE;
+
+            @Override
+            public boolean hasNext() {
+                return offset < indexOffset;
+            }
+
+            @Override
+            public Course next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Course course = decode(offset);
+                offset += Integer.BYTES + readInt(offset);
+                return course;
+            }
+        };
+    }
+
+    private static void encode(DataOutputStream out, byte[] id, Course course) throws IOException {
+        out.writeInt(id.length);
+        out.write(id);
+        writeString(out, course.getName());
+        writeString(out, course.getLanguage());
+        writeString(out, course.getLevel());
+        writeString(out, course.getDescription());
+        writeDate(out, course.getCreatedDate());
+        writeDate(out, course.getLastModifiedDate());
+        out.writeBoolean(course.getVersion() != null);
+        out.writeLong(course.getVersion() == null ? 0 : course.getVersion());
+    }
+
+    private Course decode(long offset) {
+        ByteBuffer in = ByteBuffer.wrap(read(offset + Integer.BYTES, readInt(offset)));
+        String id = readString(in);
+        Course course = new Course(readString(in), readString(in), readString(in), readString(in));
+        course.setId(id);
+        course.setCreatedDate(readDate(in));
+        course.setLastModifiedDate(readDate(in));
+        boolean versioned = in.get() != 0;
+        long version = in.getLong();
+        course.setVersion(versioned ? version : null);
+        return course;
+    }
+
+    private byte[] readId(long offset) {
+        return read(offset + Integer.BYTES * 2, readInt(offset + Integer.BYTES));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = utf8(value);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer in) {
+        int length = in.getInt();
+        if (length < 0) {
+            return null;
+        }
+        String value = new String(in.array(), in.position(), length, StandardCharsets.UTF_8);
+        in.position(in.position() + length);
+        return value;
+    }
+
+    private static void writeDate(DataOutputStream out, LocalDateTime value) throws IOException {
+        out.writeBoolean(value != null);
+        out.writeLong(value == null ? 0 : value.toEpochSecond(ZoneOffset.UTC));
+        out.writeInt(value == null ? 0 : value.getNano());
+    }
+
+    private static LocalDateTime readDate(ByteBuffer in) {
+        boolean present = in.get() != 0;
+        long seconds = in.getLong();
+        int nanos = in.getInt();
+        return present ? LocalDateTime.ofEpochSecond(seconds, nanos, ZoneOffset.UTC) : null;
+    }
+
+    private int readInt(long position) {
+        int chunk = (int) (position / CHUNK);
+        int offset = (int) (position % CHUNK);
+        if (offset + Integer.BYTES <= chunks[chunk].limit()) {
+            return chunks[chunk].getInt(offset);
+        }
+        return ByteBuffer.wrap(read(position, Integer.BYTES)).getInt();
+    }
+
+    private long readLong(long position) {
+        int chunk = (int) (position / CHUNK);
+        int offset = (int) (position % CHUNK);
+        if (offset + Long.BYTES <= chunks[chunk].limit()) {
+            return chunks[chunk].getLong(offset);
+        }
+        return ByteBuffer.wrap(read(position, Long.BYTES)).getLong();
+    }
+
+    // copies across chunk boundaries
+    private byte[] read(long position, int length) {
+        byte[] bytes = new byte[length];
+        for (int done = 0; done < length;) {
+            MappedByteBuffer chunk = chunks[(int) ((position + done) / CHUNK)];
+            int offset = (int) ((position + done) % CHUNK);
+            int n = Math.min(length - done, chunk.limit() - offset);
+            chunk.get(offset, bytes, done, n);
+            done += n;
+        }
+        return bytes;
+    }
+
+    private static int compareIds(byte[] a, byte[] b) {
+        int byType = Boolean.compare(isObjectId(a), isObjectId(b));
+        return byType != 0 ? byType : Arrays.compareUnsigned(a, b);
+    }
+
+    private static boolean isObjectId(byte[] id) {
+        if (id.length != 24) {
+            return false;
+        }
+        for (byte b : id) {
+            if (!(b >= '0' && b <= '9' || b >= 'a' && b <= 'f' || b >= 'A' && b <= 'F')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static byte[] utf8(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static OutputStream uncloseable(FileChannel channel) {
+        OutputStream out = Channels.newOutputStream(channel);
+        return new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                out.write(b);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                out.write(b, off, len);
+            }
+        };
+    }
+}
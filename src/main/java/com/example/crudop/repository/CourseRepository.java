@@ -1,5 +1,9 @@
 package com.example.crudop.repository;
 
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.springframework.data.domain.Limit;
 import org.springframework.data.mongodb.repository.MongoRepository;
 import org.springframework.stereotype.Repository;
 
@@ -7,4 +11,17 @@ import com.example.crudop.model.Course;
 
 @Repository
 public interface CourseRepository extends MongoRepository<Course, String> {
+
+    // keyset pagination: _id is an ObjectId, so its order follows createdDate
+    List<Course> findAllByOrderByIdAsc(Limit limit);
+
+    List<Course> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    // projected variants: Mongo only reads and returns the fields of the projection type
+    <T> List<T> findAllByOrderByIdAsc(Limit limit, Class<T> type);
+
+    <T> List<T> findByIdGreaterThanOrderByIdAsc(String id, Limit limit, Class<T> type);
+
+    // backed by a Mongo cursor, must be closed by the caller
+    Stream<Course> streamAllByOrderByIdAsc();
 }
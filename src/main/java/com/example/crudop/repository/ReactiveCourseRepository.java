@@ -0,0 +1,19 @@
+package com.example.crudop.repository;
+
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import org.springframework.stereotype.Repository;
+
+import com.example.crudop.model.Course;
+
+import reactor.core.publisher.Flux;
+
+@Repository
+public interface ReactiveCourseRepository extends ReactiveMongoRepository<Course, String> {
+
+    Flux<Course> findAllByOrderByIdAsc(Limit limit);
+
+    Flux<Course> findByIdGreaterThanOrderByIdAsc(String id, Limit limit);
+
+    Flux<Course> findAllByOrderByIdAsc();
+}
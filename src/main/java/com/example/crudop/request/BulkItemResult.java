@@ -0,0 +1,16 @@
+package com.example.crudop.request;
+
+public record BulkItemResult(int index, String id, Status status, String error) {
+
+    public enum Status {
+        CREATED, UPDATED, DELETED, NOT_FOUND, CONFLICT, FAILED, SKIPPED
+    }
+
+    public static BulkItemResult of(int index, String id, Status status) {
+        return new BulkItemResult(index, id, status, null);
+    }
+
+    public static BulkItemResult failed(int index, String id, String error) {
+        return new BulkItemResult(index, id, Status.FAILED, error);
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.crudop.request;
+
+import com.example.crudop.model.Course;
+
+/**
+ * Published by the services after every write to the catalog, so the caches of
+ * this instance drop what the write made stale before the caller gets its answer.
+ *
+ * @param courseId the written course
+ * @param course the course after the write, {@code null} if it was deleted or not read back
+ * @param deleted whether the course is gone
+ */
+public record CourseChanged(String courseId, Course course, boolean deleted) {
+
+    public static CourseChanged saved(Course course) {
+        return new CourseChanged(course.getId(), course, false);
+    }
+
+    public static CourseChanged changed(String courseId) {
+        return new CourseChanged(courseId, null, false);
+    }
+
+    public static CourseChanged deleted(String courseId) {
+        return new CourseChanged(courseId, null, true);
+    }
+}
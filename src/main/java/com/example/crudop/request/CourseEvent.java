@@ -0,0 +1,20 @@
+package com.example.crudop.request;
+
+import com.example.crudop.model.Course;
+
+/**
+ * One entry of the change feed. {@code token} resumes the feed right after this
+ * event; {@code course} is the document after the change, {@code null} for deletes.
+ */
+public record CourseEvent(String token, Type type, String id, Course course) {
+
+    public enum Type {
+        CREATED, UPDATED, DELETED,
+        /** The feed cannot continue from here, consumers have to reload the catalog. */
+        RESET
+    }
+
+    public static CourseEvent reset(String token) {
+        return new CourseEvent(token, Type.RESET, null, null);
+    }
+}
@@ -0,0 +1,8 @@
+package com.example.crudop.request;
+
+/**
+ * Partial update of a course: only the non-null fields are written.
+ */
+public record CoursePatchRequest(String name, String language, String level, String description) {
+
+}
@@ -0,0 +1,10 @@
+package com.example.crudop.request;
+
+import java.util.Map;
+
+/**
+ * Catalog counts. Courses without a language or level are counted under {@code "none"}.
+ */
+public record CourseStatistics(long total, Map<String, Long> byLanguage, Map<String, Long> byLevel,
+        Map<String, Map<String, Long>> byLanguageAndLevel) {
+}
@@ -1,5 +1,13 @@
 package com.example.crudop.request;
 
-public record CourseUpdateRequest(String id, String name, String language, String level, String description) {
+/**
+ * Full update of the editable fields. With a {@code version}, the update is
+ * rejected if the course has been changed since that version was read.
+ */
+public record CourseUpdateRequest(String id, String name, String language, String level, String description,
+        Long version) {
 
+    public CourseUpdateRequest(String id, String name, String language, String level, String description) {
+        this(id, name, language, level, description, null);
+    }
 }
@@ -0,0 +1,6 @@
+package com.example.crudop.request;
+
+import java.time.LocalDate;
+
+public record DailyCount(LocalDate day, long count) {
+}
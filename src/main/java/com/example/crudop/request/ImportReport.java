@@ -0,0 +1,18 @@
+package com.example.crudop.request;
+
+import java.util.List;
+
+/**
+ * Progress of an import. {@code records} counts the input records handled so
+ * far, which is where a resumed import continues; {@code existing} are courses
+ * whose id was already stored, {@code errors} the first failures by record number.
+ * Time and rate cover the latest run only. {@code invalidInput} marks an import
+ * that failed on the input itself, which the same input cannot resume.
+ */
+public record ImportReport(String importId, Status status, long records, long imported, long existing, long failed,
+        List<String> errors, long elapsedMillis, double rowsPerSecond, boolean invalidInput) {
+
+    public enum Status {
+        RUNNING, COMPLETED, FAILED
+    }
+}
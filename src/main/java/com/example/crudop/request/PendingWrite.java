@@ -0,0 +1,12 @@
+package com.example.crudop.request;
+
+import java.util.concurrent.CompletableFuture;
+
+import com.example.crudop.model.Course;
+
+/**
+ * A course waiting in the write-behind queue, with the future completed once
+ * its batch has been written.
+ */
+public record PendingWrite(Course course, CompletableFuture<Course> persisted) {
+}
@@ -0,0 +1,11 @@
+package com.example.crudop.request;
+
+/**
+ * File formats of catalog export and import.
+ */
+public enum TransferFormat {
+    /** One JSON course per line. */
+    NDJSON,
+    /** RFC 4180, with a header row naming the columns. */
+    CSV
+}
@@ -0,0 +1,11 @@
+package com.example.crudop.request;
+
+/**
+ * When a write-behind create is acknowledged to the caller.
+ */
+public enum WriteAck {
+    /** As soon as the course is queued; it is lost if the instance dies before the next flush. */
+    QUEUED,
+    /** Once the batch holding the course has been written to Mongo. */
+    PERSISTED
+}
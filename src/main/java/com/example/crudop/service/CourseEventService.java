@@ -0,0 +1,118 @@
+package com.example.crudop.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.bson.BsonDocument;
+import org.bson.BsonValue;
+import org.bson.Document;
+import org.bson.json.JsonParseException;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.messaging.ChangeStreamRequest;
+import org.springframework.data.mongodb.core.messaging.Message;
+import org.springframework.data.mongodb.core.messaging.MessageListenerContainer;
+import org.springframework.data.mongodb.core.messaging.Subscription;
+import org.springframework.stereotype.Service;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.request.CourseEvent;
+import com.example.crudop.request.CourseEvent.Type;
+import com.mongodb.MongoException;
+import com.mongodb.client.model.changestream.ChangeStreamDocument;
+import com.mongodb.client.model.changestream.FullDocument;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Change feed of the {@code courses} collection, read from a Mongo change stream
+ * instead of polling. Live subscribers share a single change stream cursor;
+ * a subscriber resuming from a token gets its own cursor starting right after it.
+ * <p>
+ * The cursors run in a {@link MessageListenerContainer} on the blocking client,
+ * so the servlet stack does not need a reactive client and its second pool.
+ */
+@Service
+public class CourseEventService {
+
+    private final MongoOperations mongoOperations;
+    private final MessageListenerContainer container;
+    private final Flux<CourseEvent> live;
+
+    public CourseEventService(MongoOperations mongoOperations, MessageListenerContainer container) {
+        this.mongoOperations = mongoOperations;
+        this.container = container;
+        this.live = watch(null).publish().refCount();
+    }
+
+    /**
+     * Streams the changes made after {@code after}, or from now on when it is
+     * {@code null}. The token must come from {@link CourseEvent#token()}; once
+     * it is no longer in the oplog the feed ends with a {@link Type#RESET}.
+     *
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public Flux<CourseEvent> events(String after) {
+        return after == null || after.isBlank() ? live : watch(decodeToken(after));
+    }
+
+    // one cursor per subscriber, removed from the container when the subscriber goes away
+    private Flux<CourseEvent> watch(BsonValue resumeToken) {
+        return Flux.<Message<ChangeStreamDocument<Document>, Course>>create(sink -> {
+            ChangeStreamRequest.ChangeStreamRequestBuilder<Course> request = ChangeStreamRequest.<Course>builder(sink::next)
+                    .collection(mongoOperations.getCollectionName(Course.class))
+                    .fullDocumentLookup(FullDocument.UPDATE_LOOKUP);
+            if (resumeToken != null) {
+                request.resumeAfter(resumeToken);
+            }
+            Subscription subscription = container.register(request.build(), Course.class, sink::error);
+            sink.onDispose(() -> container.remove(subscription));
+        })
+                .map(CourseEventService::toEvent)
+                // a lost resume point or a dropped collection: consumers cannot catch up incrementally
+                .onErrorResume(e -> e instanceof DataAccessException || e instanceof MongoException,
+                        e -> Mono.just(CourseEvent.reset(null)));
+    }
+
+    private static CourseEvent toEvent(Message<ChangeStreamDocument<Document>, Course> message) {
+        ChangeStreamDocument<Document> event = message.getRaw();
+        String token = event.getResumeToken() == null ? null : encodeToken(event.getResumeToken());
+        Type type = event.getOperationType() == null ? Type.RESET : switch (event.getOperationType()) {
+            case INSERT -> Type.CREATED;
+            case UPDATE, REPLACE -> Type.UPDATED;
+            case DELETE -> Type.DELETED;
+            default -> Type.RESET;
+        };
+        if (type == Type.RESET) {
+            return CourseEvent.reset(token);
+        }
+
+        BsonValue id = event.getDocumentKey() == null ? null : event.getDocumentKey().get("_id");
+        return new CourseEvent(token, type, idOf(id), type == Type.DELETED ? null : message.getBody());
+    }
+
+    private static String idOf(BsonValue id) {
+        if (id == null) {
+            return null;
+        }
+        if (id.isObjectId()) {
+            return id.asObjectId().getValue().toHexString();
+        }
+        return id.isString() ? id.asString().getValue() : id.toString();
+    }
+
+    // resume tokens travel in urls and Last-Event-ID headers, so they are sent as base64url
+    private static String encodeToken(BsonValue token) {
+        String json = token.isDocument() ? token.asDocument().toJson() : new BsonDocument("_data", token).toJson();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static BsonDocument decodeToken(String token) {
+        try {
+            return BsonDocument.parse(new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8));
+        } catch (IllegalArgumentException | JsonParseException e) {
+            throw new IllegalArgumentException("Malformed resume token: " + token, e);
+        }
+    }
+}
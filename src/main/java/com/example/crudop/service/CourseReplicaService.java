@@ -0,0 +1,243 @@
+package com.example.crudop.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.replica.CatalogReplica;
+import com.example.crudop.repository.CourseRepository;
+import com.example.crudop.request.CourseChanged;
+import com.example.crudop.request.CourseEvent;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+
+/**
+ * Opt-in local read replica of the catalog for read-heavy nodes, see
+ * {@link CatalogReplica}. Once loaded, {@link CourseService#getById} and
+ * {@link CourseService#streamAll} are answered from a memory-mapped file without
+ * asking Mongo, so reads keep working while Mongo is briefly unavailable.
+ * <p>
+ * With {@code courses.replica.change-feed} the replica follows the change
+ * stream (which needs a replica set), resuming from the file left by the last
+ * run, and folds the changes into a new file every
+ * {@code courses.replica.max-changes} changes. Otherwise it is rebuilt from
+ * Mongo right at startup and then every {@code courses.replica.rebuild-interval};
+ * the file of the last run is only served if that first rebuild fails.
+ * <p>
+ * Writes of this node are recorded as they happen, so it reads its own writes;
+ * writes of other nodes arrive with the change feed or the next rebuild.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseReplicaService {
+
+    private final CourseRepository repository;
+    private final ObjectProvider<CourseEventService> events;
+
+    @Value("${courses.replica.enabled:false}")
+    private boolean enabled;
+
+    @Value("${courses.replica.file:${java.io.tmpdir}/crudop/courses.replica}")
+    private Path file;
+
+    @Value("${courses.replica.change-feed:false}")
+    private boolean changeFeed;
+
+    @Value("${courses.replica.rebuild-interval:10m}")
+    private Duration rebuildInterval;
+
+    @Value("${courses.replica.max-changes:10000}")
+    private int maxChanges;
+
+    @Value("${courses.replica.retry-delay:5s}")
+    private Duration retryDelay;
+
+    private CatalogReplica replica;
+    private ScheduledExecutorService refresher;
+    private Disposable feed;
+    private volatile String lastToken;
+    // false until the file is known to be worth serving
+    private volatile boolean serving;
+    private final AtomicBoolean compacting = new AtomicBoolean();
+
+    @PostConstruct
+    void open() {
+        if (!enabled) {
+            return;
+        }
+        replica = new CatalogReplica(file);
+        try {
+            // a file from the last run: resumed with the change feed, else a fallback if the first rebuild fails
+            if (replica.load()) {
+                lastToken = replica.resumeToken();
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.warn("Ignoring unreadable course replica {}: {}", file, e.toString());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        refresher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("course-replica").daemon().factory());
+        if (changeFeed) {
+            follow(lastToken);
+            serving = true;
+            if (!replica.isLoaded() || lastToken == null) {
+                refresher.execute(this::rebuild);
+            }
+        } else {
+            refresher.scheduleWithFixedDelay(this::rebuild, 0, rebuildInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * @return whether reads can be served from the replica
+     */
+    public boolean isReady() {
+        return replica != null && serving && replica.isLoaded();
+    }
+
+    public Course getById(String id) {
+        return replica.get(id);
+    }
+
+    /**
+     * Every course in id order, read from the file as the stream is consumed.
+     */
+    public Stream<Course> streamAll() {
+        return replica.stream();
+    }
+
+    /**
+     * Reloads the whole catalog from Mongo into a new file.
+     *
+     * @return whether the replica was reloaded; on failure the previous snapshot, if any, keeps serving
+     */
+    public synchronized boolean rebuild() {
+        // changes that arrive while reading stay on top of the new snapshot
+        String token = lastToken;
+        try (Stream<Course> courses = repository.streamAllByOrderByIdAsc()) {
+            long count = replica.reload(courses.iterator(), token);
+            log.info("Course replica rebuilt with {} courses", count);
+            return true;
+        } catch (IOException e) {
+            log.warn("Course replica rebuild failed", e);
+        } catch (DataAccessException | IllegalArgumentException e) {
+            log.warn("Course replica rebuild failed, still serving the previous snapshot: {}", e.toString());
+        } finally {
+            serving = true;
+        }
+        return false;
+    }
+
+    /**
+     * Records a write of this node, so its next read sees it. A write whose
+     * result was not read back is looked up in Mongo.
+     */
+    @EventListener
+    public void courseChanged(CourseChanged change) {
+        if (replica == null) {
+            return;
+        }
+        if (change.course() != null) {
+            replica.put(change.course());
+        } else if (change.deleted()) {
+            replica.remove(change.courseId());
+        } else {
+            try {
+                repository.findById(change.courseId()).ifPresentOrElse(replica::put, () -> replica.remove(change.courseId()));
+            } catch (DataAccessException e) {
+                log.debug("Course {} stays stale in the replica until the next update: {}", change.courseId(), e.toString());
+            }
+        }
+        compactIfNeeded();
+    }
+
+    @PreDestroy
+    void stop() {
+        if (feed != null) {
+            feed.dispose();
+        }
+        if (refresher != null) {
+            refresher.shutdownNow();
+        }
+    }
+
+    private void follow(String token) {
+        CourseEventService eventService = events.getIfAvailable();
+        if (eventService == null) {
+            log.warn("No change feed available, the course replica is only rebuilt on RESET");
+            return;
+        }
+        feed = eventService.events(token).subscribe(this::apply, e -> {
+            log.warn("Course replica change feed failed: {}", e.toString());
+            apply(CourseEvent.reset(null));
+        });
+    }
+
+    private void apply(CourseEvent event) {
+        switch (event.type()) {
+            case CREATED, UPDATED -> {
+                // no document for an update means it was deleted meanwhile, the delete follows
+                if (event.course() != null) {
+                    replica.put(event.course());
+                }
+            }
+            case DELETED -> {
+                if (event.id() != null) {
+                    replica.remove(event.id());
+                }
+            }
+            case RESET -> {
+                // the feed ended: start over from now and reload everything, not in a tight loop
+                lastToken = null;
+                refresher.schedule(() -> {
+                    follow(null);
+                    rebuild();
+                }, retryDelay.toMillis(), TimeUnit.MILLISECONDS);
+                return;
+            }
+        }
+        lastToken = event.token();
+        compactIfNeeded();
+    }
+
+    private void compactIfNeeded() {
+        if (replica.pendingChanges() >= maxChanges && refresher != null && !refresher.isShutdown()
+                && compacting.compareAndSet(false, true)) {
+            refresher.execute(this::compact);
+        }
+    }
+
+    private synchronized void compact() {
+        try {
+            long count = replica.compact(lastToken);
+            log.debug("Course replica compacted into {} courses", count);
+        } catch (IOException e) {
+            log.warn("Course replica compaction failed, changes stay in memory", e);
+        } finally {
+            compacting.set(false);
+        }
+    }
+}
@@ -1,54 +1,228 @@
 package com.example.crudop.service;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.UnaryOperator;
+import java.util.stream.Stream;
 
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.TextCriteria;
+import org.springframework.data.mongodb.core.query.TextQuery;
+import org.springframework.data.mongodb.core.query.Update;
 import org.springframework.stereotype.Service;
 
+import com.example.crudop.model.CompactCourse;
 import com.example.crudop.model.Course;
+import com.example.crudop.model.ScoredCourse;
 import com.example.crudop.repository.CourseRepository;
+import com.example.crudop.request.BulkItemResult;
+import com.example.crudop.request.BulkItemResult.Status;
+import com.example.crudop.request.CourseChanged;
 import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.request.CoursePatchRequest;
 import com.example.crudop.request.CourseUpdateRequest;
 
-import jakarta.annotation.PostConstruct;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
+
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 
 @Service
+@Timed("courses.service")
 @RequiredArgsConstructor
 public class CourseService {
 
     private final CourseRepository repository;
+    private final MongoOperations mongoOperations;
+    private final CourseReplicaService replica;
+    private final ApplicationEventPublisher events;
 
-    @PostConstruct
-    void init() {
-        if (repository.count() == 0) {
-            List<Course> courses = Arrays.asList(
-                    new Course("English A1", "English", "A1", "Beginner English course"),
-                    new Course("French B1", "French", "B1", "Intermediate French course"),
-                    new Course("German A2", "German", "A2", "Basic German course"),
-                    new Course("Spanish B2", "Spanish", "B2", "Upper-intermediate Spanish course"),
-                    new Course("Italian C1", "Italian", "C1", "Advanced Italian course")
-            );
-            repository.saveAll(courses);
-        }
-    }
+    // fields that may be asked for with fields=, by their name in JSON and in Mongo
+    private static final Map<String, Function<Course, Object>> FIELDS = Map.of(
+            "id", Course::getId,
+            "name", Course::getName,
+            "language", Course::getLanguage,
+            "level", Course::getLevel,
+            "description", Course::getDescription,
+            "createdDate", Course::getCreatedDate,
+            "lastModifiedDate", Course::getLastModifiedDate,
+            "version", Course::getVersion);
+
+    @Value("${courses.bulk.batch-size:1000}")
+    private int bulkBatchSize;
+
+    @Value("${courses.search.max-time:50ms}")
+    private Duration searchMaxTime;
+
+    @Value("${courses.update.max-attempts:3}")
+    private int maxUpdateAttempts;
 
     public List<Course> getAll() {
+        if (replica.isReady()) {
+            try (Stream<Course> courses = replica.streamAll()) {
+                return courses.toList();
+            }
+        }
         return repository.findAll();
     }
 
+    public List<Course> getPage(String after, int limit) {
+        if (after == null || after.isBlank()) {
+            return repository.findAllByOrderByIdAsc(Limit.of(limit));
+        }
+        return repository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+
+    /**
+     * Like {@link #getPage(String, int)}, but only reads id, name, language and level.
+     */
+    public List<CompactCourse> getSummaryPage(String after, int limit) {
+        if (after == null || after.isBlank()) {
+            return repository.findAllByOrderByIdAsc(Limit.of(limit), CompactCourse.class);
+        }
+        return repository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit), CompactCourse.class);
+    }
+
+    /**
+     * Sparse fieldset variant of {@link #getPage(String, int)}: Mongo only returns
+     * the requested fields and each course is reduced to a map of exactly those,
+     * so nothing else gets serialized. The id is always included.
+     *
+     * @throws IllegalArgumentException if a field is not a course field
+     */
+    public List<Map<String, Object>> getPage(String after, int limit, Collection<String> fields) {
+        Set<String> selected = fieldSet(fields);
+        Query query = after == null || after.isBlank() ? new Query() : Query.query(Criteria.where("id").gt(after));
+        query.with(Sort.by("id")).limit(limit);
+        query.fields().include(selected.toArray(String[]::new));
+
+        return mongoOperations.find(query, Course.class).stream()
+                .map(course -> toFields(course, selected))
+                .toList();
+    }
+
+    /**
+     * Reduces the course to the requested fields, see {@link #getPage(String, int, Collection)}.
+     *
+     * @return {@code null} for a {@code null} course
+     * @throws IllegalArgumentException if a field is not a course field
+     */
+    public Map<String, Object> selectFields(Course course, Collection<String> fields) {
+        Set<String> selected = fieldSet(fields);
+        return course == null ? null : toFields(course, selected);
+    }
+
+    /**
+     * Streams every course in id order, from the local replica when it is ready
+     * and from a Mongo cursor otherwise. The returned stream may hold the cursor
+     * open and must be closed by the caller.
+     */
+    public Stream<Course> streamAll() {
+        if (replica.isReady()) {
+            return replica.streamAll();
+        }
+        return repository.streamAllByOrderByIdAsc();
+    }
+
+    /**
+     * Finds courses by any combination of language, level and name prefix, sorted
+     * by name. Only indexed fields are projected, so the query never touches the
+     * documents themselves. Results are cached briefly per instance.
+     */
+    @Cacheable(cacheNames = "course-filters", key = "{#language, #level, #namePrefix, #limit}")
+    public List<CompactCourse> filter(String language, String level, String namePrefix, int limit) {
+        Query query = new Query();
+        if (language != null) {
+            query.addCriteria(Criteria.where("language").is(language));
+        }
+        if (level != null) {
+            query.addCriteria(Criteria.where("level").is(level));
+        }
+        if (namePrefix != null && !namePrefix.isEmpty()) {
+            // an anchored regex of escaped literals is answered by Mongo as an index range scan
+            query.addCriteria(Criteria.where("name").regex("^" + namePrefix.replaceAll("[\\\\^$.|?*+()\\[\\]{}]", "\\\\$0")));
+        }
+        query.with(Sort.by("name")).limit(limit);
+
+        return mongoOperations.query(Course.class).as(CompactCourse.class).matching(query).all();
+    }
+
+    /**
+     * Searches name and description through the text index, best matches first.
+     * Mongo aborts the query once {@code courses.search.max-time} is spent,
+     * which surfaces as a {@link QueryTimeoutException}.
+     */
+    public List<ScoredCourse> search(String text, int page, int size) {
+        TextQuery query = TextQuery.queryText(TextCriteria.forDefaultLanguage().matching(text)).sortByScore();
+        query.fields().include("name", "language", "level");
+        query.with(PageRequest.of(page, size));
+        if (searchMaxTime != null) {
+            query.maxTime(searchMaxTime);
+        }
+
+        try {
+            return mongoOperations.find(query, ScoredCourse.class, mongoOperations.getCollectionName(Course.class));
+        } catch (UncategorizedMongoDbException e) {
+            if (e.getCause() instanceof MongoExecutionTimeoutException) {
+                throw new QueryTimeoutException("Search took longer than " + searchMaxTime, e);
+            }
+            throw e;
+        }
+    }
+
+    // misses are cached too, so unknown ids do not hit Mongo on every request;
+    // replica reads are not, they are cheap already and would only pin copies on the heap
+    @Cacheable(cacheNames = "courses", key = "#id", condition = "!@courseReplicaService.isReady()")
     public Course getById(String id) {
+        if (replica.isReady()) {
+            return replica.getById(id);
+        }
         return repository.findById(id).orElse(null);
     }
 
+    @CacheEvict(cacheNames = "courses", key = "#course.id", condition = "#course.id != null")
     public Course create(Course course) {
-        if (course.getId() != null && repository.existsById(course.getId())) {
-            return null;
-        }
         course.setCreatedDate(LocalDateTime.now());
         course.setLastModifiedDate(null);
-        return repository.save(course);
+        try {
+            return saved(repository.insert(course));
+        } catch (DuplicateKeyException e) {
+            return null;
+        }
     }
 
     public Course create(CourseCreateRequest course) {
@@ -56,48 +230,474 @@ public class CourseService {
         created.setCreatedDate(LocalDateTime.now());
         created.setLastModifiedDate(null);
 
-        if (created.getId() != null && repository.existsById(created.getId())) {
-            return null;
-        }
-
-        return repository.save(created);
+        return saved(repository.insert(created));
     }
 
+    /**
+     * Replaces the course if the stored one still has {@code course.version}. A
+     * course sent without a version is an unconditional update: its editable
+     * fields are overwritten in a single write, whatever the stored version.
+     *
+     * @return {@code null} if there is no course with this id
+     * @throws OptimisticLockingFailureException if the course was changed meanwhile
+     */
+    @CacheEvict(cacheNames = "courses", key = "#course.id", condition = "#course != null && #course.id != null")
     public Course update(Course course) {
         if (course == null || course.getId() == null) {
             return null;
         }
 
-        if (!repository.existsById(course.getId())) {
-            return null;
+        Long version = course.getVersion();
+        if (version == null) {
+            return update(new CourseUpdateRequest(course.getId(), course.getName(), course.getLanguage(),
+                    course.getLevel(), course.getDescription()));
         }
 
+        course.setVersion(version + 1);
         course.setLastModifiedDate(LocalDateTime.now());
-        return repository.save(course);
+        Course updated = mongoOperations.findAndReplace(byVersion(course.getId(), version), course,
+                FindAndReplaceOptions.options().returnNew());
+        if (updated == null) {
+            course.setVersion(version);
+            checkNoConflict(course.getId(), version);
+            return null;
+        }
+        return saved(updated);
     }
 
+    /**
+     * Overwrites the editable fields. When the request carries a version, the
+     * update only applies to that version of the course.
+     *
+     * @return {@code null} if there is no course with this id
+     * @throws OptimisticLockingFailureException if the requested version is outdated
+     */
+    @CacheEvict(cacheNames = "courses", key = "#request.id", condition = "#request.id != null")
     public Course update(CourseUpdateRequest request) {
-        Course existing = repository.findById(request.id()).orElse(null);
+        if (request.id() == null) {
+            return null;
+        }
 
-        if (existing == null) {
+        Query query = request.version() == null ? byId(request.id()) : byVersion(request.id(), request.version());
+        Course updated = mongoOperations.findAndModify(query, toUpdate(request, LocalDateTime.now()),
+                FindAndModifyOptions.options().returnNew(true), Course.class);
+        if (updated == null) {
+            if (request.version() != null) {
+                checkNoConflict(request.id(), request.version());
+            }
             return null;
         }
+        return saved(updated);
+    }
 
-        Course updated = new Course(
-                request.name(),
-                request.language(),
-                request.level(),
-                request.description()
-        );
-        updated.setId(existing.getId());
-        updated.setCreatedDate(existing.getCreatedDate());
-        updated.setLastModifiedDate(LocalDateTime.now());
+    /**
+     * Re-reads the course and applies {@code change} to it until the versioned
+     * write goes through, for server-side merges that must not lose concurrent
+     * edits. Gives up after {@code courses.update.max-attempts} conflicts.
+     *
+     * @return {@code null} if there is no course with this id
+     */
+    @CacheEvict(cacheNames = "courses", key = "#id")
+    public Course merge(String id, UnaryOperator<Course> change) {
+        for (int attempt = 1; ; attempt++) {
+            Course current = repository.findById(id).orElse(null);
+            if (current == null) {
+                return null;
+            }
+            try {
+                return update(change.apply(current));
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= Math.max(1, maxUpdateAttempts)) {
+                    throw e;
+                }
+            }
+        }
+    }
 
-        return repository.save(updated);
+    /**
+     * Applies the non-null fields of the request as a single {@code $set}, without
+     * reading or rewriting the rest of the document.
+     *
+     * @return {@code false} if there is no course with this id
+     */
+    @CacheEvict(cacheNames = "courses", key = "#id")
+    public boolean patch(String id, CoursePatchRequest request) {
+        return patch(byId(id), request);
     }
 
+    /**
+     * Like {@link #patch(String, CoursePatchRequest)}, but only for the given version.
+     *
+     * @throws OptimisticLockingFailureException if the course has another version
+     */
+    @CacheEvict(cacheNames = "courses", key = "#id")
+    public boolean patch(String id, CoursePatchRequest request, long version) {
+        if (patch(byVersion(id, version), request)) {
+            return true;
+        }
+        checkNoConflict(id, version);
+        return false;
+    }
+
+    @CacheEvict(cacheNames = "courses", key = "#id")
     public void delete(String id) {
         repository.deleteById(id);
+        events.publishEvent(CourseChanged.deleted(id));
+    }
+
+    /**
+     * Deletes the course only if it still has the given version.
+     *
+     * @throws OptimisticLockingFailureException if the course has another version
+     */
+    @CacheEvict(cacheNames = "courses", key = "#id")
+    public boolean delete(String id, long version) {
+        Query query = byVersion(id, version);
+        query.fields().include("id");
+        if (mongoOperations.findAndRemove(query, Course.class) != null) {
+            events.publishEvent(CourseChanged.deleted(id));
+            return true;
+        }
+        checkNoConflict(id, version);
+        return false;
+    }
+
+    private boolean patch(Query query, CoursePatchRequest request) {
+        Update update = new Update()
+                .set("lastModifiedDate", LocalDateTime.now())
+                .inc("version", 1);
+        setIfPresent(update, "name", request.name());
+        setIfPresent(update, "language", request.language());
+        setIfPresent(update, "level", request.level());
+        setIfPresent(update, "description", request.description());
+
+        query.fields().include("id");
+        Course patched = mongoOperations.findAndModify(query, update, Course.class);
+        if (patched == null) {
+            return false;
+        }
+        events.publishEvent(CourseChanged.changed(patched.getId()));
+        return true;
+    }
+
+    private Course saved(Course course) {
+        events.publishEvent(CourseChanged.saved(course));
+        return course;
+    }
+
+    // only called once a versioned write matched nothing, so the happy path stays one round trip
+    private void checkNoConflict(String id, long version) {
+        if (repository.existsById(id)) {
+            throw new OptimisticLockingFailureException(
+                    "Course " + id + " was modified concurrently, version " + version + " is outdated");
+        }
+    }
+
+    /**
+     * Inserts the courses in {@link BulkOperations} batches, one round trip per
+     * batch. Every course is reported on its own: a course Mongo refused is
+     * {@link Status#FAILED}, the others of its batch are created. When
+     * {@code ordered} is set, Mongo stops at the first refused course and the
+     * courses after it are {@link Status#SKIPPED}.
+     * <p>
+     * Ids are assigned before the write and failed courses keep theirs, so after
+     * a batch failed as a whole, for instance on a lost connection, the caller can
+     * look up which of them were stored after all.
+     */
+    public List<BulkItemResult> createAll(List<CourseCreateRequest> requests, boolean ordered) {
+        List<BulkItemResult> results = new ArrayList<>(requests.size());
+        int batchSize = Math.max(1, bulkBatchSize);
+        boolean aborted = false;
+
+        for (int from = 0; from < requests.size() && !aborted; from += batchSize) {
+            LocalDateTime now = LocalDateTime.now();
+            List<Course> batch = new ArrayList<>();
+            for (CourseCreateRequest request : requests.subList(from, Math.min(from + batchSize, requests.size()))) {
+                Course course = mapToCourse(request);
+                course.setId(new ObjectId().toHexString());
+                course.setCreatedDate(now);
+                course.setVersion(0L);
+                batch.add(course);
+            }
+
+            BulkOperations operations = mongoOperations.bulkOps(ordered ? BulkMode.ORDERED : BulkMode.UNORDERED, Course.class);
+            operations.insert(batch);
+            Map<Integer, String> errors = new HashMap<>();
+            execute(operations, batch.size(), errors);
+            int stoppedAt = ordered ? firstFailure(errors) : Integer.MAX_VALUE;
+
+            for (int i = 0; i < batch.size(); i++) {
+                int index = results.size();
+                String id = batch.get(i).getId();
+                if (errors.containsKey(i)) {
+                    results.add(BulkItemResult.failed(index, id, errors.get(i)));
+                } else if (i > stoppedAt) {
+                    results.add(BulkItemResult.of(index, id, Status.SKIPPED));
+                } else {
+                    results.add(BulkItemResult.of(index, id, Status.CREATED));
+                    saved(batch.get(i));
+                }
+            }
+            aborted = ordered && !errors.isEmpty();
+        }
+
+        // never assigned an id, the index tells which request it was
+        skipRemaining(results, requests.size(), i -> null);
+        return results;
+    }
+
+    /**
+     * Applies the updates in {@link BulkOperations} batches. Each batch costs one
+     * lookup of the existing ids and versions and one bulk write; unknown ids are
+     * reported as {@link Status#NOT_FOUND} and never upserted, outdated versions as
+     * {@link Status#CONFLICT}, updates Mongo refused as {@link Status#FAILED}.
+     * When {@code ordered} is set, Mongo stops at the first refused update and
+     * everything after it is {@link Status#SKIPPED}.
+     * <p>
+     * A course deleted or changed between the lookup and the write matches
+     * nothing. When the bulk write matched fewer courses than it was sent, the
+     * sent ids are read again and only those carrying this batch's modification
+     * date count as {@link Status#UPDATED}.
+     */
+    @CacheEvict(cacheNames = "courses", allEntries = true)
+    public List<BulkItemResult> updateAll(List<CourseUpdateRequest> requests, boolean ordered) {
+        List<BulkItemResult> results = new ArrayList<>(requests.size());
+        int batchSize = Math.max(1, bulkBatchSize);
+        boolean aborted = false;
+
+        for (int from = 0; from < requests.size() && !aborted; from += batchSize) {
+            List<CourseUpdateRequest> batch = requests.subList(from, Math.min(from + batchSize, requests.size()));
+            Map<String, Long> versions = findVersions(batch.stream().map(CourseUpdateRequest::id).toList());
+
+            BulkOperations operations = mongoOperations.bulkOps(ordered ? BulkMode.ORDERED : BulkMode.UNORDERED, Course.class);
+            // Mongo keeps milliseconds, so the stored date can be compared with it
+            LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+            // position of each request in the bulk write, -1 when it was not sent
+            int[] positions = new int[batch.size()];
+            int sent = 0;
+            for (int i = 0; i < batch.size(); i++) {
+                CourseUpdateRequest request = batch.get(i);
+                positions[i] = -1;
+                if (versions.containsKey(request.id()) && isCurrent(request, versions)) {
+                    Query query = request.version() == null ? byId(request.id()) : byVersion(request.id(), request.version());
+                    operations.updateOne(query, toUpdate(request, now));
+                    positions[i] = sent++;
+                    // a later request for the same id in this batch sees the version this one writes
+                    versions.put(request.id(), versions.get(request.id()) + 1);
+                }
+            }
+
+            Map<Integer, String> errors = new HashMap<>();
+            long matched = sent == 0 ? 0 : execute(operations, sent, errors);
+            int stoppedAt = Integer.MAX_VALUE;
+            if (ordered && !errors.isEmpty()) {
+                int failed = firstFailure(errors);
+                for (int i = 0; i < batch.size() && stoppedAt == Integer.MAX_VALUE; i++) {
+                    stoppedAt = positions[i] == failed ? i : stoppedAt;
+                }
+            }
+            long expected = 0;
+            for (int i = 0; i < batch.size() && i <= stoppedAt; i++) {
+                expected += positions[i] >= 0 && !errors.containsKey(positions[i]) ? 1 : 0;
+            }
+            // every update matches at most one course, so only a shortfall leaves some in doubt
+            Map<String, LocalDateTime> written = matched == expected ? null : findModified(batch, positions);
+
+            for (int i = 0; i < batch.size(); i++) {
+                CourseUpdateRequest request = batch.get(i);
+                int index = results.size();
+                if (positions[i] >= 0 && errors.containsKey(positions[i])) {
+                    results.add(BulkItemResult.failed(index, request.id(), errors.get(positions[i])));
+                    // unknown whether a batch that failed as a whole got to it
+                    events.publishEvent(CourseChanged.changed(request.id()));
+                } else if (i > stoppedAt) {
+                    results.add(BulkItemResult.of(index, request.id(), Status.SKIPPED));
+                } else if (request.id() == null || !versions.containsKey(request.id())) {
+                    results.add(BulkItemResult.of(index, request.id(), Status.NOT_FOUND));
+                } else if (positions[i] < 0) {
+                    results.add(BulkItemResult.of(index, request.id(), Status.CONFLICT));
+                } else if (written != null && !written.containsKey(request.id())) {
+                    results.add(BulkItemResult.of(index, request.id(), Status.NOT_FOUND));
+                } else if (written != null && !now.equals(written.get(request.id()))) {
+                    results.add(BulkItemResult.of(index, request.id(), Status.CONFLICT));
+                } else {
+                    results.add(BulkItemResult.of(index, request.id(), Status.UPDATED));
+                    events.publishEvent(CourseChanged.changed(request.id()));
+                }
+            }
+            aborted = ordered && !errors.isEmpty();
+        }
+
+        skipRemaining(results, requests.size(), i -> requests.get(i).id());
+        return results;
+    }
+
+    // id -> lastModifiedDate of the courses the batch sent an update for
+    private Map<String, LocalDateTime> findModified(List<CourseUpdateRequest> batch, int[] positions) {
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < batch.size(); i++) {
+            if (positions[i] >= 0) {
+                ids.add(batch.get(i).id());
+            }
+        }
+        Query query = Query.query(Criteria.where("id").in(ids));
+        query.fields().include("id", "lastModifiedDate");
+        Map<String, LocalDateTime> modified = new HashMap<>();
+        for (Course course : mongoOperations.find(query, Course.class)) {
+            modified.put(course.getId(), course.getLastModifiedDate());
+        }
+        return modified;
+    }
+
+    @CacheEvict(cacheNames = "courses", allEntries = true)
+    public List<BulkItemResult> deleteAll(List<String> ids, boolean ordered) {
+        List<BulkItemResult> results = new ArrayList<>(ids.size());
+        int batchSize = Math.max(1, bulkBatchSize);
+        boolean aborted = false;
+
+        for (int from = 0; from < ids.size() && !aborted; from += batchSize) {
+            List<String> batch = ids.subList(from, Math.min(from + batchSize, ids.size()));
+            Set<String> existing = findExistingIds(batch);
+
+            String error = null;
+            if (!existing.isEmpty()) {
+                try {
+                    mongoOperations.remove(Query.query(Criteria.where("id").in(existing)), Course.class);
+                } catch (DataAccessException e) {
+                    error = e.getMessage();
+                }
+            }
+            for (String id : batch) {
+                results.add(toResult(results.size(), id, existing, Status.DELETED, error));
+            }
+            // a failed remove may still have deleted some of them
+            for (String id : existing) {
+                events.publishEvent(error == null ? CourseChanged.deleted(id) : CourseChanged.changed(id));
+            }
+            aborted = ordered && error != null;
+        }
+
+        skipRemaining(results, ids.size(), ids::get);
+        return results;
+    }
+
+    private Set<String> findExistingIds(List<String> ids) {
+        return findVersions(ids).keySet();
+    }
+
+    // id -> stored version of the ids that exist
+    private Map<String, Long> findVersions(List<String> ids) {
+        List<String> candidates = ids.stream().filter(Objects::nonNull).toList();
+        if (candidates.isEmpty()) {
+            return Map.of();
+        }
+        Query query = Query.query(Criteria.where("id").in(candidates));
+        query.fields().include("id", "version");
+        Map<String, Long> versions = new HashMap<>();
+        for (Course course : mongoOperations.find(query, Course.class)) {
+            versions.put(course.getId(), course.getVersion() == null ? 0L : course.getVersion());
+        }
+        return versions;
+    }
+
+    private static boolean isCurrent(CourseUpdateRequest request, Map<String, Long> versions) {
+        return request.version() == null || request.version().equals(versions.get(request.id()));
+    }
+
+    /**
+     * Runs the bulk write and puts the error of each refused position into
+     * {@code errors}, every position when the write failed as a whole.
+     *
+     * @return the number of matched documents, -1 if Mongo did not report it
+     */
+    private long execute(BulkOperations operations, int size, Map<Integer, String> errors) {
+        try {
+            return matchedCount(operations.execute());
+        } catch (BulkOperationException e) {
+            for (BulkWriteError error : e.getErrors()) {
+                errors.put(error.getIndex(), error.getMessage());
+            }
+            return matchedCount(e.getResult());
+        } catch (DataAccessException e) {
+            for (int i = 0; i < size; i++) {
+                errors.put(i, e.getMessage());
+            }
+            return -1;
+        }
+    }
+
+    private static long matchedCount(BulkWriteResult result) {
+        return result == null || !result.wasAcknowledged() ? -1 : result.getMatchedCount();
+    }
+
+    private static int firstFailure(Map<Integer, String> errors) {
+        return errors.keySet().stream().mapToInt(Integer::intValue).min().orElse(Integer.MAX_VALUE);
+    }
+
+    private BulkItemResult toResult(int index, String id, Set<String> existing, Status success, String error) {
+        if (id == null || !existing.contains(id)) {
+            return BulkItemResult.of(index, id, Status.NOT_FOUND);
+        }
+        return error == null ? BulkItemResult.of(index, id, success) : BulkItemResult.failed(index, id, error);
+    }
+
+    private void skipRemaining(List<BulkItemResult> results, int total, IntFunction<String> idAt) {
+        while (results.size() < total) {
+            results.add(BulkItemResult.of(results.size(), idAt.apply(results.size()), Status.SKIPPED));
+        }
+    }
+
+    private static Update toUpdate(CourseUpdateRequest request, LocalDateTime now) {
+        return new Update()
+                .set("name", request.name())
+                .set("language", request.language())
+                .set("level", request.level())
+                .set("description", request.description())
+                .set("lastModifiedDate", now)
+                .inc("version", 1);
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("id").is(id));
+    }
+
+    // courses stored before versioning have no version field and count as version 0
+    private static Query byVersion(String id, long version) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (version == 0) {
+            return Query.query(criteria.orOperator(
+                    Criteria.where("version").is(0L), Criteria.where("version").exists(false)));
+        }
+        return Query.query(criteria.and("version").is(version));
+    }
+
+    private static Set<String> fieldSet(Collection<String> fields) {
+        Set<String> selected = new LinkedHashSet<>();
+        selected.add("id");
+        for (String field : fields) {
+            String name = field.trim();
+            if (!name.isEmpty() && !FIELDS.containsKey(name)) {
+                throw new IllegalArgumentException("Unknown course field: " + name);
+            }
+            if (!name.isEmpty()) {
+                selected.add(name);
+            }
+        }
+        return selected;
+    }
+
+    private static Map<String, Object> toFields(Course course, Set<String> selected) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (String field : selected) {
+            values.put(field, FIELDS.get(field).apply(course));
+        }
+        return values;
     }
 
     private Course mapToCourse(CourseCreateRequest request) {
@@ -0,0 +1,99 @@
+package com.example.crudop.service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+import org.bson.Document;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.aggregation.DateOperators;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.stereotype.Service;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.request.CourseStatistics;
+import com.example.crudop.request.DailyCount;
+
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Catalog statistics computed by Mongo aggregations. Every pipeline sorts on
+ * the prefix of an index and only reads indexed fields, so Mongo answers it
+ * from the index without loading a single document. Results are cached in
+ * {@code course-stats} for {@code courses.stats.ttl}.
+ */
+@Service
+@Timed("courses.stats")
+@RequiredArgsConstructor
+public class CourseStatsService {
+
+    static final String NONE = "none";
+
+    private final MongoOperations mongoOperations;
+
+    /**
+     * Counts courses per language, per level and per language and level.
+     */
+    @Cacheable(cacheNames = "course-stats", key = "'counts'")
+    public CourseStatistics counts() {
+        // one covered scan of language_level_name gives every breakdown
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.sort(Sort.by("language", "level")),
+                Aggregation.group("language", "level").count().as("count"));
+
+        long total = 0;
+        Map<String, Long> byLanguage = new TreeMap<>();
+        Map<String, Long> byLevel = new TreeMap<>();
+        Map<String, Map<String, Long>> byLanguageAndLevel = new TreeMap<>();
+        for (Document group : mongoOperations.aggregate(aggregation, Course.class, Document.class)) {
+            Document key = group.get("_id", Document.class);
+            String language = Objects.toString(key.getString("language"), NONE);
+            String level = Objects.toString(key.getString("level"), NONE);
+            long count = ((Number) group.get("count")).longValue();
+
+            total += count;
+            byLanguage.merge(language, count, Long::sum);
+            byLevel.merge(level, count, Long::sum);
+            byLanguageAndLevel.computeIfAbsent(language, l -> new TreeMap<>()).merge(level, count, Long::sum);
+        }
+        return new CourseStatistics(total, byLanguage, byLevel, byLanguageAndLevel);
+    }
+
+    /**
+     * Counts courses created per day from {@code from} to {@code to}, both
+     * inclusive, in the server time zone. Days without courses are included
+     * with a count of 0.
+     */
+    @Cacheable(cacheNames = "course-stats", key = "{'daily', #from, #to}")
+    public List<DailyCount> createdPerDay(LocalDate from, LocalDate to) {
+        ZoneId zone = ZoneId.systemDefault();
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("createdDate")
+                        .gte(from.atStartOfDay()).lt(to.plusDays(1).atStartOfDay())),
+                Aggregation.sort(Sort.by("createdDate")),
+                Aggregation.project().andExclude("_id").and(DateOperators.dateOf("createdDate")
+                        .withTimezone(DateOperators.Timezone.valueOf(zone.getId()))
+                        .toString("%Y-%m-%d")).as("day"),
+                Aggregation.group("day").count().as("count"));
+
+        Map<LocalDate, Long> counts = new HashMap<>();
+        for (Document group : mongoOperations.aggregate(aggregation, Course.class, Document.class)) {
+            counts.put(LocalDate.parse(group.getString("_id")), ((Number) group.get("count")).longValue());
+        }
+
+        List<DailyCount> days = new ArrayList<>();
+        for (LocalDate day = from; !day.isAfter(to); day = day.plusDays(1)) {
+            days.add(new DailyCount(day, counts.getOrDefault(day, 0L)));
+        }
+        return days;
+    }
+}
@@ -0,0 +1,549 @@
+package com.example.crudop.service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.bson.Document;
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Service;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.repository.CourseRepository;
+import com.example.crudop.request.CourseChanged;
+import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.request.ImportReport;
+import com.example.crudop.request.ImportReport.Status;
+import com.example.crudop.request.TransferFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Moves the whole catalog in and out as NDJSON or CSV. Both directions stream:
+ * an export reads one Mongo cursor, an import parses one record at a time and
+ * writes {@code courses.transfer.batch-size} courses per {@code insertMany},
+ * so memory stays flat whatever the file size.
+ * <p>
+ * After every batch an import stores a checkpoint in {@code course_imports}.
+ * Posting the same file again with the same import id skips the records that
+ * were already handled. Records without an id get one derived from the import
+ * id and record number, so replaying a batch never creates duplicates.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CourseTransferService {
+
+    private static final String CHECKPOINTS = "course_imports";
+    private static final List<String> COLUMNS = List.of("id", "name", "language", "level", "description",
+            "createdDate", "lastModifiedDate", "version");
+    private static final int MAX_ERRORS = 100;
+
+    private final CourseRepository repository;
+    private final MongoOperations mongoOperations;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher events;
+
+    // imports running on this instance, an id can only be imported once at a time
+    private final Set<String> running = ConcurrentHashMap.newKeySet();
+
+    @Value("${courses.transfer.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${courses.transfer.flush-every:1000}")
+    private int flushEvery;
+
+    @Value("${courses.transfer.log-every:100000}")
+    private long logEvery;
+
+    @Value("${courses.transfer.max-record-length:1048576}")
+    private int maxRecordLength;
+
+    /**
+     * Writes every course to {@code out} in id order. {@code out} is flushed
+     * every {@code courses.transfer.flush-every} courses but not closed.
+     *
+     * @return the number of courses written
+     */
+    public long export(OutputStream out, TransferFormat format) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+        JsonGenerator generator = null;
+        ObjectWriter json = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        if (format == TransferFormat.NDJSON) {
+            generator = objectMapper.getFactory().createGenerator(writer)
+                    .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        } else {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        long count = 0;
+        try (Stream<Course> courses = repository.streamAllByOrderByIdAsc()) {
+            for (Course course : (Iterable<Course>) courses::iterator) {
+                if (generator != null) {
+                    json.writeValue(generator, course);
+                    generator.writeRaw('\n');
+                } else {
+                    writeCsv(writer, course);
+                }
+                if (++count % Math.max(1, flushEvery) == 0) {
+                    if (generator != null) {
+                        generator.flush();
+                    }
+                    writer.flush();
+                }
+            }
+        }
+        if (generator != null) {
+            generator.flush();
+        }
+        writer.flush();
+        return count;
+    }
+
+    /**
+     * Imports the courses in {@code in}, which may be gzip compressed. With the
+     * id of an earlier, unfinished import it resumes after its last checkpoint;
+     * without one a new import id is assigned.
+     * <p>
+     * Invalid records are counted and reported, not fatal. If Mongo becomes
+     * unavailable the import stops with {@link Status#FAILED} at its last
+     * checkpoint, ready to be resumed. CSV that cannot be split into records, a
+     * header without the required columns, a quoted field that never ends or a
+     * record over {@code courses.transfer.max-record-length} characters, fails
+     * the import as invalid input after the records before it.
+     *
+     * @throws IllegalStateException if the import is already running on this instance
+     * @throws IOException if the input cannot be read; the checkpoint is kept
+     */
+    public ImportReport importCourses(InputStream in, TransferFormat format, String importId) throws IOException {
+        String id = importId == null || importId.isBlank() ? new ObjectId().toHexString() : importId;
+        if (!running.add(id)) {
+            throw new IllegalStateException("Import " + id + " is already running");
+        }
+        try {
+            return runImport(in, format, id);
+        } finally {
+            running.remove(id);
+        }
+    }
+
+    /**
+     * @return the last checkpoint of the import, {@code null} if it is unknown
+     */
+    public ImportReport progress(String importId) {
+        Document checkpoint = mongoOperations.findById(importId, Document.class, CHECKPOINTS);
+        if (checkpoint == null) {
+            return null;
+        }
+        return new ImportReport(importId, Status.valueOf(checkpoint.getString("status")),
+                checkpoint.getLong("records"), checkpoint.getLong("imported"), checkpoint.getLong("existing"),
+                checkpoint.getLong("failed"), checkpoint.getList("errors", String.class, List.of()),
+                checkpoint.getLong("elapsedMillis"), checkpoint.getDouble("rowsPerSecond"),
+                checkpoint.getBoolean("invalidInput", false));
+    }
+
+    private ImportReport runImport(InputStream in, TransferFormat format, String importId) throws IOException {
+        ImportReport previous = progress(importId);
+        long resumeAfter = previous == null ? 0 : previous.records();
+        long imported = previous == null ? 0 : previous.imported();
+        long existing = previous == null ? 0 : previous.existing();
+        long failed = previous == null ? 0 : previous.failed();
+        List<String> errors = previous == null ? new ArrayList<>() : new ArrayList<>(previous.errors());
+        if (resumeAfter > 0) {
+            log.info("Resuming import {} after record {}", importId, resumeAfter);
+        }
+
+        long started = System.nanoTime();
+        long record = 0;
+        long checkpointed = resumeAfter;
+        List<Course> batch = new ArrayList<>(Math.max(1, batchSize));
+        // invalid records since the last checkpoint, only counted once their batch is checkpointed
+        long invalid = 0;
+        List<String> invalidErrors = new ArrayList<>();
+        try (BufferedReader reader = reader(in)) {
+            List<String> header;
+            try {
+                header = format == TransferFormat.CSV ? readCsvRecord(reader, maxRecordLength) : null;
+                if (header != null) {
+                    validateHeader(header);
+                }
+            } catch (IllegalArgumentException e) {
+                addError(errors, "header: " + e.getMessage());
+                log.warn("Import {} rejected: {}", importId, e.getMessage());
+                return checkpoint(importId, Status.FAILED, resumeAfter, imported, existing, failed, errors, started,
+                        resumeAfter, true);
+            }
+
+            for (Object raw; (raw = nextRecord(reader, format, maxRecordLength)) != null;) {
+                if (raw instanceof IllegalArgumentException malformed) {
+                    // nothing after it can be told apart into records, keep what came before and stop
+                    long[] written = write(batch, errors);
+                    imported += written[0];
+                    existing += written[1];
+                    failed += written[2] + invalid;
+                    invalidErrors.forEach(error -> addError(errors, error));
+                    addError(errors, "record " + (record + 1) + ": " + malformed.getMessage() + ", import stopped");
+                    log.warn("Import {} stopped at record {}: {}", importId, record + 1, malformed.getMessage());
+                    return checkpoint(importId, Status.FAILED, Math.max(record, resumeAfter), imported, existing,
+                            failed, errors, started, resumeAfter, true);
+                }
+                if (++record <= resumeAfter) {
+                    continue;
+                }
+                try {
+                    batch.add(toCourse(raw, header, importId, record));
+                } catch (IllegalArgumentException e) {
+                    invalid++;
+                    addError(invalidErrors, "record " + record + ": " + e.getMessage());
+                }
+
+                if (batch.size() >= batchSize) {
+                    long[] written = write(batch, errors);
+                    imported += written[0];
+                    existing += written[1];
+                    failed += written[2] + invalid;
+                    invalidErrors.forEach(error -> addError(errors, error));
+                    invalid = 0;
+                    invalidErrors.clear();
+                    long previousCheckpoint = checkpointed;
+                    checkpointed = record;
+                    checkpoint(importId, Status.RUNNING, checkpointed, imported, existing, failed, errors, started,
+                            resumeAfter, false);
+                    if (checkpointed / Math.max(1, logEvery) != previousCheckpoint / Math.max(1, logEvery)) {
+                        log.info("Import {} at record {}, {} rows/s", importId, checkpointed,
+                                String.format("%.0f", rate(checkpointed - resumeAfter, started)));
+                    }
+                    batch.clear();
+                }
+            }
+
+            long[] written = write(batch, errors);
+            imported += written[0];
+            existing += written[1];
+            failed += written[2] + invalid;
+            invalidErrors.forEach(error -> addError(errors, error));
+            ImportReport report = checkpoint(importId, Status.COMPLETED, Math.max(record, resumeAfter), imported,
+                    existing, failed, errors, started, resumeAfter, false);
+            log.info("Import {} completed: {} imported, {} existing, {} failed, {} rows/s", importId, imported, existing,
+                    failed, String.format("%.0f", report.rowsPerSecond()));
+            return report;
+        } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+            log.warn("Import {} stopped at record {}: {}", importId, checkpointed, e.toString());
+            addError(errors, "record " + (checkpointed + 1) + ": import stopped, resume with the same importId: "
+                    + e.getMessage());
+            return failedCheckpoint(importId, checkpointed, imported, existing, failed, errors, started, resumeAfter);
+        } catch (IOException e) {
+            failedCheckpoint(importId, checkpointed, imported, existing, failed, errors, started, resumeAfter);
+            throw e;
+        }
+    }
+
+    // imported, existing and failed courses of the batch
+    private long[] write(List<Course> batch, List<String> errors) {
+        long[] written = new long[3];
+        if (batch.isEmpty()) {
+            return written;
+        }
+        try {
+            mongoOperations.insert(batch, Course.class);
+            written[0] = batch.size();
+            batch.forEach(course -> events.publishEvent(CourseChanged.saved(course)));
+        } catch (TransientDataAccessException | DataAccessResourceFailureException e) {
+            throw e;
+        } catch (DataAccessException e) {
+            // insertMany stops at the first failure, typically a duplicate of a batch replayed after a failure
+            for (Course course : batch) {
+                try {
+                    mongoOperations.insert(course);
+                    written[0]++;
+                    events.publishEvent(CourseChanged.saved(course));
+                } catch (DuplicateKeyException alreadyStored) {
+                    written[1]++;
+                    events.publishEvent(CourseChanged.changed(course.getId()));
+                } catch (TransientDataAccessException | DataAccessResourceFailureException unavailable) {
+                    throw unavailable;
+                } catch (DataAccessException rejected) {
+                    written[2]++;
+                    addError(errors, "course " + course.getId() + ": " + rejected.getMessage());
+                }
+            }
+        }
+        return written;
+    }
+
+    private ImportReport checkpoint(String importId, Status status, long records, long imported, long existing,
+            long failed, List<String> errors, long started, long resumeAfter, boolean invalidInput) {
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+        double rowsPerSecond = rate(records - resumeAfter, started);
+        Document checkpoint = new Document("_id", importId)
+                .append("status", status.name())
+                .append("records", records)
+                .append("imported", imported)
+                .append("existing", existing)
+                .append("failed", failed)
+                .append("errors", errors)
+                .append("elapsedMillis", elapsedMillis)
+                .append("rowsPerSecond", rowsPerSecond)
+                .append("invalidInput", invalidInput)
+                .append("updatedAt", new Date());
+        mongoOperations.save(checkpoint, CHECKPOINTS);
+        return new ImportReport(importId, status, records, imported, existing, failed, List.copyOf(errors),
+                elapsedMillis, rowsPerSecond, invalidInput);
+    }
+
+    // the report of the failed run even if Mongo cannot take its checkpoint right now
+    private ImportReport failedCheckpoint(String importId, long records, long imported, long existing, long failed,
+            List<String> errors, long started, long resumeAfter) {
+        try {
+            return checkpoint(importId, Status.FAILED, records, imported, existing, failed, errors, started, resumeAfter,
+                    false);
+        } catch (DataAccessException e) {
+            return new ImportReport(importId, Status.FAILED, records, imported, existing, failed, List.copyOf(errors),
+                    (System.nanoTime() - started) / 1_000_000, rate(records - resumeAfter, started), false);
+        }
+    }
+
+    private static double rate(long records, long started) {
+        double seconds = (System.nanoTime() - started) / 1e9;
+        return seconds <= 0 ? 0 : records / seconds;
+    }
+
+    private static void addError(List<String> errors, String error) {
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    // gzip is recognized by its magic number rather than trusting a header
+    private static BufferedReader reader(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, 1 << 16);
+        buffered.mark(2);
+        boolean gzip = buffered.read() == 0x1f && buffered.read() == 0x8b;
+        buffered.reset();
+        InputStream decoded = gzip ? new GZIPInputStream(buffered, 1 << 16) : buffered;
+        return new BufferedReader(new InputStreamReader(decoded, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    // an NDJSON line, a list of CSV fields or the error of malformed CSV, null at the end;
+    // blank lines are not records
+    private static Object nextRecord(BufferedReader reader, TransferFormat format, int maxLength) throws IOException {
+        if (format == TransferFormat.NDJSON) {
+            String line;
+            do {
+                line = reader.readLine();
+            } while (line != null && line.isBlank());
+            return line;
+        }
+        List<String> fields;
+        do {
+            try {
+                fields = readCsvRecord(reader, maxLength);
+            } catch (IllegalArgumentException e) {
+                return e;
+            }
+        } while (fields != null && fields.size() == 1 && fields.get(0).isEmpty());
+        return fields;
+    }
+
+    private static void validateHeader(List<String> header) {
+        for (String column : List.of("name", "language", "level")) {
+            if (!header.contains(column)) {
+                throw new IllegalArgumentException("CSV header has no " + column + " column");
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Course toCourse(Object raw, List<String> header, String importId, long record) {
+        String id;
+        String createdDate;
+        String lastModifiedDate;
+        CourseCreateRequest request;
+        if (raw instanceof String line) {
+            try {
+                JsonNode node = objectMapper.readTree(line);
+                if (!node.isObject()) {
+                    throw new IllegalArgumentException("not a JSON object");
+                }
+                request = objectMapper.treeToValue(node, CourseCreateRequest.class);
+                id = node.path("id").textValue();
+                createdDate = node.path("createdDate").textValue();
+                lastModifiedDate = node.path("lastModifiedDate").textValue();
+            } catch (JsonProcessingException e) {
+                throw new IllegalArgumentException("malformed JSON: " + e.getOriginalMessage());
+            }
+        } else {
+            List<String> fields = (List<String>) raw;
+            if (fields.size() != header.size()) {
+                throw new IllegalArgumentException("expected " + header.size() + " fields, found " + fields.size());
+            }
+            Map<String, String> row = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                row.put(header.get(i), fields.get(i).isEmpty() ? null : fields.get(i));
+            }
+            request = new CourseCreateRequest(row.get("name"), row.get("language"), row.get("level"),
+                    row.get("description"));
+            id = row.get("id");
+            createdDate = row.get("createdDate");
+            lastModifiedDate = row.get("lastModifiedDate");
+        }
+
+        for (Map.Entry<String, String> required : Map.of("name", nullToEmpty(request.name()),
+                "language", nullToEmpty(request.language()), "level", nullToEmpty(request.level())).entrySet()) {
+            if (required.getValue().isBlank()) {
+                throw new IllegalArgumentException(required.getKey() + " is required");
+            }
+        }
+
+        Course course = new Course(request.name(), request.language(), request.level(), request.description());
+        course.setId(id == null || id.isBlank() ? importedId(importId, record) : id);
+        course.setCreatedDate(createdDate == null ? LocalDateTime.now() : parseDate("createdDate", createdDate));
+        course.setLastModifiedDate(lastModifiedDate == null ? null : parseDate("lastModifiedDate", lastModifiedDate));
+        return course;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    private static LocalDateTime parseDate(String field, String value) {
+        try {
+            return LocalDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException(field + " is not an ISO date-time: " + value);
+        }
+    }
+
+    // 24 hex digits, stored as an ObjectId like any other course id
+    private static String importedId(String importId, long record) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((importId + '\u0000' + record).getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(Arrays.copyOf(digest, 12));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void writeCsv(Writer writer, Course course) throws IOException {
+        Object[] values = {course.getId(), course.getName(), course.getLanguage(), course.getLevel(),
+                course.getDescription(), course.getCreatedDate(), course.getLastModifiedDate(), course.getVersion()};
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            if (values[i] != null) {
+                writeCsvField(writer, values[i].toString());
+            }
+        }
+        writer.write("\r\n");
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        boolean quote = value.isEmpty() || value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+        if (!quote) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    /**
+     * Reads one RFC 4180 record; quoted fields may span lines, up to
+     * {@code maxLength} characters for the whole record.
+     *
+     * @return the fields, or {@code null} at the end of the input
+     * @throws IllegalArgumentException if a quoted field never ends or the record is too long
+     */
+    private static List<String> readCsvRecord(BufferedReader reader, int maxLength) throws IOException {
+        int c = reader.read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        // a stray quote would otherwise pull the rest of the file into one field
+        int length = 0;
+        while (true) {
+            if (++length > maxLength) {
+                throw new IllegalArgumentException("record longer than " + maxLength + " characters");
+            }
+            if (quoted) {
+                if (c == -1) {
+                    throw new IllegalArgumentException("unterminated quoted field");
+                }
+                if (c == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        reader.reset();
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else if (c == '\r') {
+                reader.mark(1);
+                if (reader.read() != '\n') {
+                    reader.reset();
+                }
+                break;
+            } else {
+                field.append((char) c);
+            }
+            c = reader.read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
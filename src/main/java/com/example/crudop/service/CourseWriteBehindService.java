@@ -0,0 +1,220 @@
+package com.example.crudop.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.bson.types.ObjectId;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.stereotype.Service;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.request.CourseChanged;
+import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.request.PendingWrite;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Opt-in write-behind path for {@code POST /dto}: creates are queued and a single
+ * flusher thread writes them with one {@code insertMany} per batch, once
+ * {@code courses.write-behind.batch-size} courses are waiting or
+ * {@code courses.write-behind.flush-interval} has passed since the first one.
+ * <p>
+ * The queue is bounded; a full queue makes {@link #submit} wait up to
+ * {@code courses.write-behind.offer-timeout} and then reject the write. On
+ * shutdown new writes are rejected and the queue is drained before the context
+ * closes; whatever is left after {@code courses.write-behind.drain-timeout}
+ * fails its waiting caller.
+ */
+@Service
+@RequiredArgsConstructor
+public class CourseWriteBehindService {
+
+    private final MongoOperations mongoOperations;
+    private final ApplicationEventPublisher events;
+
+    @Value("${courses.write-behind.enabled:false}")
+    private boolean enabled;
+
+    @Value("${courses.write-behind.capacity:10000}")
+    private int capacity;
+
+    @Value("${courses.write-behind.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${courses.write-behind.flush-interval:50ms}")
+    private Duration flushInterval;
+
+    @Value("${courses.write-behind.offer-timeout:1s}")
+    private Duration offerTimeout;
+
+    @Value("${courses.write-behind.drain-timeout:30s}")
+    private Duration drainTimeout;
+
+    private BlockingQueue<PendingWrite> queue;
+    private Thread flusher;
+    private volatile boolean closed;
+
+    @PostConstruct
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        flusher = Thread.ofPlatform().name("course-write-behind").daemon().start(this::run);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Queues the course for the next batch. The course gets its id right away,
+     * {@link PendingWrite#persisted()} completes with it once its batch is written.
+     *
+     * @throws RejectedExecutionException if the queue stays full for the offer
+     *         timeout or the service is shutting down
+     */
+    public PendingWrite submit(CourseCreateRequest request) {
+        if (!enabled || closed) {
+            throw new RejectedExecutionException("Write-behind queue is not accepting writes");
+        }
+
+        Course course = new Course(request.name(), request.language(), request.level(), request.description());
+        // ids are assigned up front, so a batch can be retried course by course without duplicates
+        course.setId(new ObjectId().toHexString());
+        course.setCreatedDate(LocalDateTime.now());
+        PendingWrite pending = new PendingWrite(course, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, offerTimeout.toNanos(), TimeUnit.NANOSECONDS)) {
+                throw new RejectedExecutionException("Write-behind queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while queueing the write", e);
+        }
+        // queued after drain() already emptied the queue: nobody would ever complete it
+        if (closed && queue.remove(pending)) {
+            throw new RejectedExecutionException("Write-behind queue is shutting down");
+        }
+        return pending;
+    }
+
+    /**
+     * Waits for the batch holding {@code pending} to be written, at most
+     * {@code courses.write-behind.drain-timeout}.
+     *
+     * @throws TimeoutException if the batch is not written in time; the course
+     *         stays queued and may still be written
+     * @throws RejectedExecutionException if the queue was shut down before the
+     *         course was written
+     * @throws DataAccessException if Mongo refused the course; any other
+     *         failure of its batch is rethrown as is
+     */
+    public Course awaitPersisted(PendingWrite pending) throws TimeoutException {
+        try {
+            return pending.persisted().get(drainTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrupted while waiting for the write", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+
+    @PreDestroy
+    void drain() throws InterruptedException {
+        closed = true;
+        if (flusher == null) {
+            return;
+        }
+        flusher.join(drainTimeout.toMillis());
+
+        // left behind by a drain timeout, or queued while the flusher was already stopping
+        List<PendingWrite> unwritten = new ArrayList<>();
+        queue.drainTo(unwritten);
+        unwritten.forEach(pending -> pending.persisted()
+                .completeExceptionally(new RejectedExecutionException("Write-behind queue was shut down")));
+    }
+
+    private void run() {
+        List<PendingWrite> batch = new ArrayList<>(Math.max(1, batchSize));
+        while (!closed || !queue.isEmpty()) {
+            try {
+                PendingWrite first = queue.poll(flushInterval.toNanos(), TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushInterval.toNanos();
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0 || closed) {
+                        break;
+                    }
+                    PendingWrite next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next != null) {
+                        batch.add(next);
+                    }
+                }
+            } catch (InterruptedException e) {
+                closed = true;
+            }
+            try {
+                flush(batch);
+            } catch (RuntimeException e) {
+                // this is the only flusher, losing it would leave every later write queued forever
+                batch.forEach(pending -> pending.persisted().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingWrite> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            mongoOperations.insert(batch.stream().map(PendingWrite::course).toList(), Course.class);
+            batch.forEach(this::persisted);
+        } catch (RuntimeException e) {
+            // insertMany stops at the first failure, find out which courses made it
+            for (PendingWrite pending : batch) {
+                if (pending.persisted().isDone()) {
+                    continue;
+                }
+                try {
+                    mongoOperations.insert(pending.course());
+                    persisted(pending);
+                } catch (DuplicateKeyException alreadyInserted) {
+                    persisted(pending);
+                } catch (RuntimeException failed) {
+                    pending.persisted().completeExceptionally(failed);
+                }
+            }
+        }
+    }
+
+    private void persisted(PendingWrite pending) {
+        // a GET for the id before the flush may have cached the miss
+        events.publishEvent(CourseChanged.saved(pending.course()));
+        pending.persisted().complete(pending.course());
+    }
+}
@@ -0,0 +1,184 @@
+package com.example.crudop.service;
+
+import java.time.LocalDateTime;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Service;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.repository.ReactiveCourseRepository;
+import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.request.CoursePatchRequest;
+import com.example.crudop.request.CourseUpdateRequest;
+
+import lombok.RequiredArgsConstructor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link CourseService}. Where the blocking service
+ * returns {@code null}, this one completes empty.
+ */
+@Service
+@Profile("reactive")
+@RequiredArgsConstructor
+public class ReactiveCourseService {
+
+    private final ReactiveCourseRepository repository;
+    private final ReactiveMongoOperations mongoOperations;
+
+    public Flux<Course> getPage(String after, int limit) {
+        if (after == null || after.isBlank()) {
+            return repository.findAllByOrderByIdAsc(Limit.of(limit));
+        }
+        return repository.findByIdGreaterThanOrderByIdAsc(after, Limit.of(limit));
+    }
+
+    /**
+     * Streams every course in id order; the driver only fetches further cursor
+     * batches as the subscriber requests them.
+     */
+    public Flux<Course> streamAll() {
+        return repository.findAllByOrderByIdAsc();
+    }
+
+    public Mono<Course> getById(String id) {
+        return repository.findById(id);
+    }
+
+    public Mono<Course> create(Course course) {
+        course.setCreatedDate(LocalDateTime.now());
+        course.setLastModifiedDate(null);
+        return repository.insert(course)
+                .onErrorResume(DuplicateKeyException.class, e -> Mono.empty());
+    }
+
+    public Mono<Course> create(CourseCreateRequest request) {
+        Course created = new Course(request.name(), request.language(), request.level(), request.description());
+        created.setCreatedDate(LocalDateTime.now());
+        return repository.insert(created);
+    }
+
+    /**
+     * Versioned replace, see {@link CourseService#update(Course)}; a conflict
+     * completes with {@link OptimisticLockingFailureException}. Without a version
+     * the editable fields are overwritten in a single write.
+     */
+    public Mono<Course> update(Course course) {
+        if (course == null || course.getId() == null) {
+            return Mono.empty();
+        }
+
+        Long expected = course.getVersion();
+        if (expected == null) {
+            return update(new CourseUpdateRequest(course.getId(), course.getName(), course.getLanguage(),
+                    course.getLevel(), course.getDescription()));
+        }
+        course.setVersion(expected + 1);
+        course.setLastModifiedDate(LocalDateTime.now());
+        return mongoOperations.findAndReplace(byVersion(course.getId(), expected), course,
+                        FindAndReplaceOptions.options().returnNew())
+                .switchIfEmpty(conflictIfExists(course.getId(), expected));
+    }
+
+    public Mono<Course> update(CourseUpdateRequest request) {
+        if (request.id() == null) {
+            return Mono.empty();
+        }
+
+        Update update = new Update()
+                .set("name", request.name())
+                .set("language", request.language())
+                .set("level", request.level())
+                .set("description", request.description())
+                .set("lastModifiedDate", LocalDateTime.now())
+                .inc("version", 1);
+        if (request.version() == null) {
+            return mongoOperations.findAndModify(byId(request.id()), update,
+                    FindAndModifyOptions.options().returnNew(true), Course.class);
+        }
+        return mongoOperations.findAndModify(byVersion(request.id(), request.version()), update,
+                        FindAndModifyOptions.options().returnNew(true), Course.class)
+                .switchIfEmpty(conflictIfExists(request.id(), request.version()));
+    }
+
+    public Mono<Boolean> patch(String id, CoursePatchRequest request) {
+        return patch(byId(id), request);
+    }
+
+    /**
+     * Like {@link #patch(String, CoursePatchRequest)}, but only for the given
+     * version; completes with {@link OptimisticLockingFailureException} if the
+     * course has another one.
+     */
+    public Mono<Boolean> patch(String id, CoursePatchRequest request, long version) {
+        return patch(byVersion(id, version), request)
+                .flatMap(found -> found ? Mono.just(true) : this.<Boolean>conflictIfExists(id, version).defaultIfEmpty(false));
+    }
+
+    private Mono<Boolean> patch(Query query, CoursePatchRequest request) {
+        Update update = new Update()
+                .set("lastModifiedDate", LocalDateTime.now())
+                .inc("version", 1);
+        setIfPresent(update, "name", request.name());
+        setIfPresent(update, "language", request.language());
+        setIfPresent(update, "level", request.level());
+        setIfPresent(update, "description", request.description());
+
+        query.fields().include("id");
+        return mongoOperations.findAndModify(query, update, Course.class)
+                .map(patched -> true)
+                .defaultIfEmpty(false);
+    }
+
+    public Mono<Void> delete(String id) {
+        return repository.deleteById(id);
+    }
+
+    /**
+     * Deletes the course only if it still has the given version; completes with
+     * {@link OptimisticLockingFailureException} if it has another one.
+     */
+    public Mono<Boolean> delete(String id, long version) {
+        Query query = byVersion(id, version);
+        query.fields().include("id");
+        return mongoOperations.findAndRemove(query, Course.class)
+                .map(removed -> true)
+                .switchIfEmpty(this.<Boolean>conflictIfExists(id, version).defaultIfEmpty(false));
+    }
+
+    private static void setIfPresent(Update update, String field, Object value) {
+        if (value != null) {
+            update.set(field, value);
+        }
+    }
+
+    private <T> Mono<T> conflictIfExists(String id, long version) {
+        return repository.existsById(id).flatMap(exists -> exists
+                ? Mono.error(new OptimisticLockingFailureException(
+                        "Course " + id + " was modified concurrently, version " + version + " is outdated"))
+                : Mono.empty());
+    }
+
+    private static Query byId(String id) {
+        return Query.query(Criteria.where("id").is(id));
+    }
+
+    private static Query byVersion(String id, long version) {
+        Criteria criteria = Criteria.where("id").is(id);
+        if (version == 0) {
+            return Query.query(criteria.orOperator(
+                    Criteria.where("version").is(0L), Criteria.where("version").exists(false)));
+        }
+        return Query.query(criteria.and("version").is(version));
+    }
+}
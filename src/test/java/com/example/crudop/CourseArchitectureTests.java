@@ -87,7 +87,7 @@ public class CourseArchitectureTests {
         classes().that().resideInAPackage("..controller..")
                 .should().onlyDependOnClassesThat()
                 .resideInAnyPackage("..service..", "..model..", "..request..", "java..", "javax..",
-                        "org.springframework..", "lombok..")
+                        "org.springframework..", "lombok..", "reactor.core..")
                 .check(importedClasses);
     }
 
@@ -95,8 +95,10 @@ public class CourseArchitectureTests {
     void servicesDependencies() {
         classes().that().resideInAPackage("..service..")
                 .should().onlyDependOnClassesThat()
-                .resideInAnyPackage("..service..", "..repository..", "..model..", "..request..", "java..",
-                        "javax..", "org.springframework..", "jakarta.annotation..", "lombok..")
+                .resideInAnyPackage("..service..", "..repository..", "..replica..", "..model..", "..request..", "java..",
+                        "javax..", "org.springframework..", "jakarta.annotation..", "lombok..", "reactor.core..",
+                        "org.bson..", "com.mongodb", "com.mongodb.bulk..", "com.mongodb.client.model.changestream..",
+                        "io.micrometer..", "org.slf4j..", "com.fasterxml.jackson..")
                 .check(importedClasses);
     }
 
@@ -105,7 +107,7 @@ public class CourseArchitectureTests {
         classes().that().resideInAPackage("..repository..")
                 .should().onlyDependOnClassesThat()
                 .resideInAnyPackage("..model..", "java..", "javax..", "org.springframework..",
-                        "org.springframework.data..", "lombok..")
+                        "org.springframework.data..", "lombok..", "reactor.core..")
                 .check(importedClasses);
     }
 
@@ -1,29 +1,68 @@
 package com.example.crudop;
 
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.BDDMockito.willThrow;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.bson.BsonDocument;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.mongodb.BulkOperationException;
+import org.springframework.data.mongodb.UncategorizedMongoDbException;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.BulkOperations.BulkMode;
+import org.springframework.data.mongodb.core.FindAndModifyOptions;
+import org.springframework.data.mongodb.core.FindAndReplaceOptions;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.UpdateDefinition;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import com.example.crudop.model.Course;
+import com.example.crudop.model.ScoredCourse;
 import com.example.crudop.repository.CourseRepository;
+import com.example.crudop.request.BulkItemResult;
+import com.example.crudop.request.BulkItemResult.Status;
+import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.request.CourseUpdateRequest;
+import com.example.crudop.request.PendingWrite;
+import com.example.crudop.service.CourseReplicaService;
 import com.example.crudop.service.CourseService;
+import com.example.crudop.service.CourseWriteBehindService;
+import com.mongodb.MongoBulkWriteException;
+import com.mongodb.MongoExecutionTimeoutException;
+import com.mongodb.ServerAddress;
+import com.mongodb.bulk.BulkWriteError;
+import com.mongodb.bulk.BulkWriteResult;
 
 @ExtendWith(MockitoExtension.class)
 public class CourseMockTest {
@@ -31,6 +70,15 @@ public class CourseMockTest {
     @Mock
     private CourseRepository mockRepository;
 
+    @Mock
+    private MongoOperations mockOperations;
+
+    @Mock
+    private CourseReplicaService mockReplica;
+
+    @Mock
+    private ApplicationEventPublisher mockEvents;
+
     @InjectMocks
     private CourseService underTest;
 
@@ -41,13 +89,13 @@ public class CourseMockTest {
         Course course = new Course("English A1", "English", "A1", "desc");
         course.setId("123");
 
-        given(mockRepository.existsById("123")).willReturn(true);
+        given(mockRepository.insert(course)).willThrow(new DuplicateKeyException("duplicate id"));
 
         Course persisted = underTest.create(course);
 
         assertNull(persisted);
+        then(mockRepository).should(never()).existsById(any());
         then(mockRepository).should(never()).save(course);
-        then(mockRepository).should(times(1)).existsById("123");
     }
 
     @Test
@@ -57,14 +105,14 @@ public class CourseMockTest {
         Course course = new Course("English A1", "English", "A1", "desc");
         course.setId("123");
 
-        given(mockRepository.existsById("123")).willReturn(false);
-        given(mockRepository.save(course)).willReturn(course);
+        given(mockRepository.insert(course)).willReturn(course);
 
         Course persisted = underTest.create(course);
 
         assertNotNull(persisted);
         assertEquals(course, persisted);
-        then(mockRepository).should(times(1)).save(course);
+        then(mockRepository).should(times(1)).insert(course);
+        then(mockRepository).should(never()).existsById(any());
     }
 
     @Test
@@ -73,16 +121,34 @@ public class CourseMockTest {
 
         Course course = new Course("English A1", "English", "A1", "desc");
         course.setId("123");
+        course.setVersion(0L);
 
-        given(mockRepository.existsById("123")).willReturn(true);
-        given(mockRepository.save(course)).willReturn(course);
+        given(mockOperations.findAndReplace(any(Query.class), eq(course), any(FindAndReplaceOptions.class)))
+                .willReturn(course);
 
         Course updated = underTest.update(course);
 
         assertNotNull(updated);
         assertEquals(course, updated);
-        then(mockRepository).should(times(1)).existsById("123");
-        then(mockRepository).should(times(1)).save(course);
+        then(mockRepository).should(never()).existsById(any());
+        then(mockRepository).should(never()).save(course);
+    }
+
+    @Test
+    @DisplayName("Update course: no version → single unconditional write")
+    void whenUpdateCourseWithoutVersionThenSingleWrite() {
+
+        Course course = new Course("English A1", "English", "A1", "desc");
+        course.setId("123");
+
+        given(mockOperations.findAndModify(any(Query.class), any(UpdateDefinition.class),
+                any(FindAndModifyOptions.class), eq(Course.class))).willReturn(course);
+
+        Course updated = underTest.update(course);
+
+        assertEquals(course, updated);
+        then(mockOperations).should(never()).find(any(Query.class), eq(Course.class));
+        then(mockOperations).should(never()).findAndReplace(any(Query.class), any(Course.class), any(FindAndReplaceOptions.class));
     }
 
     @Test
@@ -91,16 +157,34 @@ public class CourseMockTest {
 
         Course course = new Course("English A1", "English", "A1", "desc");
         course.setId("999");
+        course.setVersion(0L);
 
-        given(mockRepository.existsById("999")).willReturn(false);
+        given(mockOperations.findAndReplace(any(Query.class), eq(course), any(FindAndReplaceOptions.class)))
+                .willReturn(null);
 
         Course updated = underTest.update(course);
 
         assertNull(updated);
-        then(mockRepository).should(times(1)).existsById("999");
+        then(mockOperations).should(times(1)).findAndReplace(any(Query.class), eq(course), any(FindAndReplaceOptions.class));
         then(mockRepository).should(never()).save(course);
     }
 
+    @Test
+    @DisplayName("Update course: outdated version → CONFLICT")
+    void whenUpdateCourseWithOutdatedVersionThenConflict() {
+
+        Course course = new Course("English A1", "English", "A1", "desc");
+        course.setId("123");
+        course.setVersion(1L);
+
+        given(mockOperations.findAndReplace(any(Query.class), eq(course), any(FindAndReplaceOptions.class)))
+                .willReturn(null);
+        given(mockRepository.existsById("123")).willReturn(true);
+
+        assertThrows(OptimisticLockingFailureException.class, () -> underTest.update(course));
+        assertEquals(1L, course.getVersion());
+    }
+
     @Test
     @DisplayName("Update course: id is null → FAIL")
     void whenUpdateCourseAndIdIsNullThenFail() {
@@ -112,6 +196,7 @@ public class CourseMockTest {
         assertNull(updated);
         then(mockRepository).should(never()).existsById(any());
         then(mockRepository).should(never()).save(any());
+        then(mockOperations).shouldHaveNoInteractions();
     }
 
     @Test
@@ -160,6 +245,163 @@ public class CourseMockTest {
         then(mockRepository).should(times(1)).findById("777");
     }
 
+    @Test
+    @DisplayName("Search over max time → QueryTimeoutException")
+    void whenSearchTimesOutThenQueryTimeout() {
+
+        given(mockOperations.getCollectionName(Course.class)).willReturn("courses");
+        given(mockOperations.find(any(Query.class), eq(ScoredCourse.class), eq("courses")))
+                .willThrow(new UncategorizedMongoDbException("operation exceeded time limit",
+                        new MongoExecutionTimeoutException(50, "operation exceeded time limit")));
+
+        assertThrows(QueryTimeoutException.class, () -> underTest.search("english", 0, 10));
+    }
+
+    @Test
+    @DisplayName("Bulk create: one course refused → only it FAILED")
+    void whenBulkCreateFailsOnOneCourseThenOthersAreCreated() {
+
+        ReflectionTestUtils.setField(underTest, "bulkBatchSize", 100);
+        BulkOperations bulk = mock(BulkOperations.class);
+        given(mockOperations.bulkOps(BulkMode.UNORDERED, Course.class)).willReturn(bulk);
+        given(bulk.execute()).willThrow(refused(1));
+
+        List<CourseCreateRequest> requests = List.of(
+                new CourseCreateRequest("One", "English", "A1", "desc"),
+                new CourseCreateRequest("Two", "English", "A1", "desc"),
+                new CourseCreateRequest("Three", "English", "A1", "desc"));
+        List<BulkItemResult> results = underTest.createAll(requests, false);
+
+        assertThat(results).extracting(BulkItemResult::status)
+                .containsExactly(Status.CREATED, Status.FAILED, Status.CREATED);
+        assertThat(results).allSatisfy(result -> assertNotNull(result.id()));
+    }
+
+    @Test
+    @DisplayName("Bulk create ordered: one course refused → the rest SKIPPED")
+    void whenOrderedBulkCreateFailsThenRestIsSkipped() {
+
+        ReflectionTestUtils.setField(underTest, "bulkBatchSize", 100);
+        BulkOperations bulk = mock(BulkOperations.class);
+        given(mockOperations.bulkOps(BulkMode.ORDERED, Course.class)).willReturn(bulk);
+        given(bulk.execute()).willThrow(refused(1));
+
+        List<CourseCreateRequest> requests = List.of(
+                new CourseCreateRequest("One", "English", "A1", "desc"),
+                new CourseCreateRequest("Two", "English", "A1", "desc"),
+                new CourseCreateRequest("Three", "English", "A1", "desc"));
+        List<BulkItemResult> results = underTest.createAll(requests, true);
+
+        assertThat(results).extracting(BulkItemResult::status)
+                .containsExactly(Status.CREATED, Status.FAILED, Status.SKIPPED);
+        assertNotNull(results.get(2).id(), "Пропущений курс має зберегти свій id");
+    }
+
+    @Test
+    @DisplayName("Bulk update: courses gone or changed before the write → not UPDATED")
+    void whenBulkUpdateMatchesLessThanSentThenRecheck() {
+
+        ReflectionTestUtils.setField(underTest, "bulkBatchSize", 100);
+        BulkOperations bulk = mock(BulkOperations.class);
+        given(mockOperations.bulkOps(BulkMode.ORDERED, Course.class)).willReturn(bulk);
+        given(bulk.execute()).willReturn(BulkWriteResult.acknowledged(0, 0, 0, 0, List.of(), List.of()));
+
+        Course deleted = new Course("One", "English", "A1", "desc");
+        deleted.setId("1");
+        deleted.setVersion(0L);
+        Course changed = new Course("Two", "English", "A1", "desc");
+        changed.setId("2");
+        changed.setVersion(0L);
+        given(mockOperations.find(any(Query.class), eq(Course.class)))
+                .willReturn(List.of(deleted, changed))
+                .willReturn(List.of(changed));
+
+        List<BulkItemResult> results = underTest.updateAll(List.of(
+                new CourseUpdateRequest("1", "One", "English", "B1", "desc", 0L),
+                new CourseUpdateRequest("2", "Two", "English", "B1", "desc", 0L)), true);
+
+        assertThat(results).extracting(BulkItemResult::status).containsExactly(Status.NOT_FOUND, Status.CONFLICT);
+    }
+
+    @Test
+    @DisplayName("Write-behind queue full → rejected, queued writes still land")
+    void whenWriteBehindQueueIsFullThenSubmitIsRejected() throws Exception {
+        CountDownLatch inserting = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        willAnswer(invocation -> {
+            inserting.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return invocation.getArgument(0);
+        }).given(mockOperations).insert(anyCollection(), eq(Course.class));
+        CourseWriteBehindService writeBehind = writeBehind(1);
+
+        PendingWrite flushing = writeBehind.submit(new CourseCreateRequest("One", "English", "A1", "desc"));
+        assertThat(inserting.await(5, TimeUnit.SECONDS)).isTrue();
+        PendingWrite queued = writeBehind.submit(new CourseCreateRequest("Two", "English", "A1", "desc"));
+
+        assertThrows(RejectedExecutionException.class,
+                () -> writeBehind.submit(new CourseCreateRequest("Three", "English", "A1", "desc")));
+
+        release.countDown();
+        assertEquals("One", writeBehind.awaitPersisted(flushing).getName());
+        assertEquals("Two", writeBehind.awaitPersisted(queued).getName());
+        ReflectionTestUtils.invokeMethod(writeBehind, "drain");
+    }
+
+    @Test
+    @DisplayName("Write-behind drain → queued writes flushed, new ones rejected")
+    void whenWriteBehindDrainsThenQueuedWritesAreFlushed() {
+        willAnswer(invocation -> invocation.getArgument(0))
+                .given(mockOperations).insert(anyCollection(), eq(Course.class));
+        CourseWriteBehindService writeBehind = writeBehind(10);
+
+        List<PendingWrite> queued = List.of(
+                writeBehind.submit(new CourseCreateRequest("One", "English", "A1", "desc")),
+                writeBehind.submit(new CourseCreateRequest("Two", "English", "A1", "desc")),
+                writeBehind.submit(new CourseCreateRequest("Three", "English", "A1", "desc")));
+        ReflectionTestUtils.invokeMethod(writeBehind, "drain");
+
+        assertThat(queued).allSatisfy(pending -> assertThat(pending.persisted())
+                .isCompletedWithValue(pending.course()));
+        assertThrows(RejectedExecutionException.class,
+                () -> writeBehind.submit(new CourseCreateRequest("Four", "English", "A1", "desc")));
+    }
+
+    @Test
+    @DisplayName("Write-behind batch fails unexpectedly → its write fails, later ones land")
+    void whenWriteBehindBatchFailsThenFlusherKeepsRunning() throws Exception {
+        IllegalStateException broken = new IllegalStateException("codec missing");
+        willThrow(broken).willAnswer(invocation -> invocation.getArgument(0))
+                .given(mockOperations).insert(anyCollection(), eq(Course.class));
+        willThrow(broken).given(mockOperations).insert(any(Course.class));
+        CourseWriteBehindService writeBehind = writeBehind(10);
+
+        PendingWrite failed = writeBehind.submit(new CourseCreateRequest("One", "English", "A1", "desc"));
+        assertThrows(IllegalStateException.class, () -> writeBehind.awaitPersisted(failed));
+
+        PendingWrite next = writeBehind.submit(new CourseCreateRequest("Two", "English", "A1", "desc"));
+        assertEquals("Two", writeBehind.awaitPersisted(next).getName());
+        ReflectionTestUtils.invokeMethod(writeBehind, "drain");
+    }
+
+    private CourseWriteBehindService writeBehind(int capacity) {
+        CourseWriteBehindService writeBehind = new CourseWriteBehindService(mockOperations, mockEvents);
+        ReflectionTestUtils.setField(writeBehind, "enabled", true);
+        ReflectionTestUtils.setField(writeBehind, "capacity", capacity);
+        ReflectionTestUtils.setField(writeBehind, "batchSize", 1);
+        ReflectionTestUtils.setField(writeBehind, "flushInterval", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(writeBehind, "offerTimeout", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(writeBehind, "drainTimeout", Duration.ofSeconds(5));
+        ReflectionTestUtils.invokeMethod(writeBehind, "start");
+        return writeBehind;
+    }
+
+    private static BulkOperationException refused(int index) {
+        BulkWriteError error = new BulkWriteError(2, "refused", new BsonDocument(), index);
+        return new BulkOperationException("refused", new MongoBulkWriteException(
+                BulkWriteResult.unacknowledged(), List.of(error), null, new ServerAddress(), Set.of()));
+    }
+
     @Test
     @DisplayName("Delete course by ID → OK")
     void whenDeleteThenOk() {
@@ -1,8 +1,10 @@
 package com.example.crudop;
 
+import java.time.LocalDate;
 import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import org.junit.jupiter.api.AfterEach;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
@@ -14,20 +16,37 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationContext;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 import com.example.crudop.Utils.Utils;
+import com.example.crudop.config.CourseInvalidationBus;
+import com.example.crudop.config.CourseSeeder;
+import com.example.crudop.config.LocalInvalidationBus;
 import com.example.crudop.model.Course;
 import com.example.crudop.repository.CourseRepository;
 import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.request.CoursePatchRequest;
 import com.example.crudop.request.CourseUpdateRequest;
 import com.example.crudop.service.CourseService;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
 @SpringBootTest
 @AutoConfigureMockMvc
 public class IntegrationTests {
@@ -41,11 +60,27 @@ public class IntegrationTests {
     @Autowired
     private CourseService courseService;
 
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CourseInvalidationBus invalidationBus;
+
+    @Autowired
+    private CourseSeeder seeder;
+
+    @Autowired
+    private ApplicationContext context;
+
     private Course savedCourse;
 
     @BeforeEach
     void setUp() {
         repository.deleteAll();
+        cacheManager.getCache("course-filters").clear();
         savedCourse = repository.save(new Course("Test Course", "English", "A1", "###test"));
     }
 
@@ -68,26 +103,333 @@ public class IntegrationTests {
         assertThat(all).anyMatch(c -> "New Course".equals(c.getName()) && c.getDescription().contains("###test dto"));
     }
 
+    @Test
+    void bulkCreateViaNdjsonShouldInsertEveryLine() throws Exception {
+        String body = Utils.toJson(new CourseCreateRequest("Bulk One", "French", "A1", "###test bulk")) + "\n"
+                + Utils.toJson(new CourseCreateRequest("Bulk Two", "German", "A2", "###test bulk")) + "\n";
+
+        mockMvc.perform(post("/api/v1/courses/bulk")
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(body))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].status").value("CREATED"))
+                .andExpect(jsonPath("$[1].status").value("CREATED"));
+
+        assertEquals(3, repository.count());
+    }
+
+    @Test
+    void bulkUpdateOfTheSameVersionTwiceShouldConflictOnce() throws Exception {
+        Long version = savedCourse.getVersion();
+        List<CourseUpdateRequest> requests = List.of(
+                new CourseUpdateRequest(savedCourse.getId(), "First", "English", "B1", "###test bulk", version),
+                new CourseUpdateRequest(savedCourse.getId(), "Second", "English", "B2", "###test bulk", version),
+                new CourseUpdateRequest("nonexistent", "Missing", "English", "B2", "###test bulk"));
+
+        mockMvc.perform(put("/api/v1/courses/bulk")
+                .param("ordered", "false")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[1].status").value("CONFLICT"))
+                .andExpect(jsonPath("$[1].id").value(savedCourse.getId()))
+                .andExpect(jsonPath("$[2].status").value("NOT_FOUND"));
+
+        assertEquals("First", repository.findById(savedCourse.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void bulkUpdateShouldReportMissingIds() throws Exception {
+        List<CourseUpdateRequest> requests = List.of(
+                new CourseUpdateRequest(savedCourse.getId(), "Bulk Updated", "English", "B2", "###test bulk"),
+                new CourseUpdateRequest("nonexistent", "Missing", "English", "B2", "###test bulk"));
+
+        mockMvc.perform(put("/api/v1/courses/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(requests)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("UPDATED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+
+        Course updated = repository.findById(savedCourse.getId()).orElseThrow();
+        assertEquals("Bulk Updated", updated.getName());
+        assertEquals("B2", updated.getLevel());
+    }
+
+    @Test
+    void bulkDeleteShouldRemoveExistingIds() throws Exception {
+        mockMvc.perform(delete("/api/v1/courses/bulk")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(List.of(savedCourse.getId(), "nonexistent"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].status").value("DELETED"))
+                .andExpect(jsonPath("$[1].status").value("NOT_FOUND"));
+
+        assertFalse(repository.existsById(savedCourse.getId()));
+    }
+
     @Test
     void createCourseWithDuplicateIdShouldReturnNull() {
         Course duplicate = new Course("Duplicate", "Eng", "A2", "###duplicate");
         duplicate.setId(savedCourse.getId());
+        duplicate.setVersion(savedCourse.getVersion());
         Course created = repository.save(duplicate);
         assertNotEquals(savedCourse.getName(), created.getName());
     }
 
+    @Test
+    void seedShouldOnlyFillAnEmptyCatalog() {
+        assertEquals(0, seeder.seed(), "Непорожній каталог не засівається");
+
+        repository.deleteAll();
+        cacheManager.getCache("course-filters").clear();
+        assertEquals(0, courseService.filter("English", null, null, 10).size());
+        assertEquals(5, seeder.seed());
+        assertEquals(0, seeder.seed());
+        assertEquals(5, repository.count());
+        assertEquals(1, courseService.filter("English", null, null, 10).size(),
+                "Засіяні курси мають витіснити закешований порожній фільтр");
+    }
+
     @Test
     void getAllCoursesShouldReturnList() throws Exception {
         mockMvc.perform(get("/api/v1/courses/"))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getAllCoursesShouldReturnNextPageLink() throws Exception {
+        Course second = repository.save(new Course("Second Course", "French", "B1", "###test"));
+
+        mockMvc.perform(get("/api/v1/courses/").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].id").value(savedCourse.getId()))
+                .andExpect(header().string("Link", containsString("after=" + savedCourse.getId())));
+
+        mockMvc.perform(get("/api/v1/courses/").param("after", savedCourse.getId()).param("limit", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(second.getId()));
+    }
+
+    @Test
+    void getAllCoursesWithFieldsShouldOnlyReturnThem() throws Exception {
+        mockMvc.perform(get("/api/v1/courses/").param("fields", "name,level"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(savedCourse.getId()))
+                .andExpect(jsonPath("$[0].name").value("Test Course"))
+                .andExpect(jsonPath("$[0].level").value("A1"))
+                .andExpect(jsonPath("$[0].description").doesNotExist())
+                .andExpect(jsonPath("$[0].language").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/courses/" + savedCourse.getId()).param("fields", "description"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.description").value("###test"))
+                .andExpect(jsonPath("$.name").doesNotExist());
+
+        mockMvc.perform(get("/api/v1/courses/").param("fields", "name,secret"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getSummariesShouldSkipDescription() throws Exception {
+        mockMvc.perform(get("/api/v1/courses/summaries"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].name").value("Test Course"))
+                .andExpect(jsonPath("$[0].language").value("English"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    void wholeCatalogShouldBeStreamedAsJsonArray() throws Exception {
+        repository.save(new Course("Second Course", "French", "B1", "###test"));
+
+        mockMvc.perform(get("/api/v1/courses/all"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(header().doesNotExist("Content-Length"))
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].id").value(savedCourse.getId()));
+    }
+
+    @Test
+    void streamAllCoursesShouldWriteNdjson() throws Exception {
+        repository.save(new Course("Second Course", "French", "B1", "###test"));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/courses/").accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        result.getAsyncResult(5000);
+
+        String body = result.getResponse().getContentAsString();
+        assertEquals(2, body.lines().count());
+        assertThat(body).contains("\"name\":\"Test Course\"", "\"name\":\"Second Course\"");
+    }
+
+    @Test
+    void filterCoursesShouldMatchLanguageLevelAndNamePrefix() throws Exception {
+        repository.save(new Course("French B1", "French", "B1", "###test"));
+        repository.save(new Course("French B2", "French", "B2", "###test"));
+        repository.save(new Course("Fr.Extra B1", "French", "B1", "###test"));
+
+        mockMvc.perform(get("/api/v1/courses/filter")
+                .param("language", "French")
+                .param("level", "B1")
+                .param("namePrefix", "Fre"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].name").value("French B1"))
+                .andExpect(jsonPath("$[0].description").doesNotExist());
+    }
+
+    @Test
+    void searchCoursesShouldRankNameMatchesFirst() throws Exception {
+        repository.save(new Course("Grammar basics", "German", "A1", "###test grammar of the spanish language"));
+        repository.save(new Course("Spanish grammar", "Spanish", "A2", "###test"));
+
+        mockMvc.perform(get("/api/v1/courses/search").param("q", "spanish"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Spanish grammar"))
+                .andExpect(jsonPath("$[0].score").isNumber());
+    }
+
+    @Test
+    void courseInAnyLanguageShouldBeStoredAndSearchable() throws Exception {
+        // "Eng" is not a text search language, the text index must not read it
+        Course created = courseService.create(new Course("Business vocabulary", "Eng", "B2", "###test language override"));
+        assertNotNull(created, "Курс мовою Eng має зберегтися");
+        repository.save(new Course("Ділова лексика", "Ukrainian", "B2", "###test business vocabulary"));
+
+        mockMvc.perform(get("/api/v1/courses/search").param("q", "vocabulary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].language").value("Eng"));
+    }
+
     @Test
     void getCourseByIdShouldReturnCourse() throws Exception {
         mockMvc.perform(get("/api/v1/courses/" + savedCourse.getId()))
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void getCourseByIdShouldBeCachedUntilDelete() {
+        courseService.getById(savedCourse.getId());
+        repository.deleteById(savedCourse.getId());
+        assertNotNull(courseService.getById(savedCourse.getId()), "Курс має повертатися з кешу");
+
+        courseService.delete(savedCourse.getId());
+        assertNull(cacheManager.getCache("courses").get(savedCourse.getId()));
+        assertNull(courseService.getById(savedCourse.getId()));
+    }
+
+    @Test
+    void invalidationFromAnotherInstanceShouldEvictNearCache() {
+        courseService.getById(savedCourse.getId());
+        savedCourse.setName("Changed elsewhere");
+        repository.save(savedCourse);
+        assertEquals("Test Course", courseService.getById(savedCourse.getId()).getName());
+
+        ((LocalInvalidationBus) invalidationBus).publish(savedCourse.getId());
+
+        assertEquals("Changed elsewhere", courseService.getById(savedCourse.getId()).getName());
+    }
+
+    @Test
+    void localWritesShouldEvictCachedFilters() {
+        assertEquals(1, courseService.filter("English", null, null, 10).size());
+
+        courseService.create(new CourseCreateRequest("Another Course", "English", "A2", "###test filters"));
+        assertEquals(2, courseService.filter("English", null, null, 10).size(), "Новий курс має з'явитися у фільтрі");
+
+        courseService.patch(savedCourse.getId(), new CoursePatchRequest(null, "German", null, null));
+        assertEquals(1, courseService.filter("English", null, null, 10).size());
+    }
+
+    @Test
+    void getCourseByIdShouldNegotiateSmileAndCbor() throws Exception {
+        for (String type : List.of("application/x-jackson-smile", "application/cbor")) {
+            byte[] body = mockMvc.perform(get("/api/v1/courses/" + savedCourse.getId()).accept(type))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string("Content-Type", type))
+                    .andReturn().getResponse().getContentAsByteArray();
+
+            Course read = (type.endsWith("smile") ? Utils.smileMapper() : Utils.cborMapper()).readValue(body, Course.class);
+            assertEquals(savedCourse.getName(), read.getName());
+        }
+    }
+
+    @Test
+    void createCourseViaDtoShouldAcceptCbor() throws Exception {
+        CourseCreateRequest request = new CourseCreateRequest("Cbor Course", "French", "B1", "###test cbor");
+
+        mockMvc.perform(post("/api/v1/courses/dto")
+                .contentType("application/cbor")
+                .content(Utils.cborMapper().writeValueAsBytes(request)))
+                .andExpect(status().isOk());
+
+        assertThat(repository.findAll()).anyMatch(c -> "Cbor Course".equals(c.getName()));
+    }
+
+    @Test
+    void getCourseByIdWithMatchingEtagShouldReturnNotModified() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/courses/" + savedCourse.getId()))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("Last-Modified"))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/courses/" + savedCourse.getId()).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]));
+    }
+
+    @Test
+    void patchWithStaleEtagShouldFailPrecondition() throws Exception {
+        String etag = mockMvc.perform(get("/api/v1/courses/" + savedCourse.getId()))
+                .andReturn().getResponse().getHeader("ETag");
+        CoursePatchRequest request = new CoursePatchRequest(null, null, "B1", null);
+
+        mockMvc.perform(patch("/api/v1/courses/" + savedCourse.getId())
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(request)))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(patch("/api/v1/courses/" + savedCourse.getId())
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(request)))
+                .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    void eventsWithMalformedResumeTokenShouldBeRejected() throws Exception {
+        mockMvc.perform(get("/api/v1/courses/events")
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Last-Event-ID", "not a token!"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void servletStackShouldNotBuildReactiveMongoClient() {
+        assertEquals(0, context.getBeanNamesForType(com.mongodb.reactivestreams.client.MongoClient.class).length,
+                "Другий пул з'єднань до Mongo не потрібен без профілю reactive");
+    }
+
+    @Test
+    void serviceCallsShouldBeTimedPerMethod() throws Exception {
+        mockMvc.perform(get("/api/v1/courses/" + savedCourse.getId()))
+                .andExpect(status().isOk());
+
+        Timer timer = meterRegistry.find("courses.service").tag("method", "getById").timer();
+        assertNotNull(timer, "getById має мати таймер");
+        assertThat(timer.count()).isPositive();
+        assertNotNull(meterRegistry.find("http.server.requests").timer());
+    }
+
     @Test
     void getCourseByIdNotExistsShouldReturnNull() {
         Course course = repository.findById("nonexistent").orElse(null);
@@ -107,6 +449,124 @@ public class IntegrationTests {
         assertEquals("###updated", updated.getDescription());
     }
 
+    @Test
+    void updateCourseViaDtoEndpointShouldKeepCreatedDate() throws Exception {
+        Course before = repository.findById(savedCourse.getId()).orElseThrow();
+        CourseUpdateRequest request = new CourseUpdateRequest(savedCourse.getId(), "Updated", "English", "A2", "###updated");
+
+        mockMvc.perform(put("/api/v1/courses/dto")
+                .header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.name").value("Updated"));
+
+        Course updated = repository.findById(savedCourse.getId()).orElseThrow();
+        assertEquals("A2", updated.getLevel());
+        assertEquals(before.getCreatedDate(), updated.getCreatedDate());
+        assertNotNull(updated.getLastModifiedDate());
+    }
+
+    @Test
+    void updateWithOutdatedVersionShouldConflict() throws Exception {
+        Long version = savedCourse.getVersion();
+        CourseUpdateRequest request = new CourseUpdateRequest(savedCourse.getId(), "Updated", "English", "A2",
+                "###updated", version);
+
+        mockMvc.perform(put("/api/v1/courses/dto")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(request)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(version + 1));
+
+        mockMvc.perform(put("/api/v1/courses/dto")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(request)))
+                .andExpect(status().isConflict());
+
+        savedCourse.setName("Stale");
+        mockMvc.perform(put("/api/v1/courses/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(savedCourse)))
+                .andExpect(status().isConflict());
+
+        assertEquals("Updated", repository.findById(savedCourse.getId()).orElseThrow().getName());
+    }
+
+    @Test
+    void writesWithoutVersionShouldRequirePrecondition() throws Exception {
+        CourseUpdateRequest request = new CourseUpdateRequest(savedCourse.getId(), "Blind", "English", "A2", "###blind");
+        Course course = repository.findById(savedCourse.getId()).orElseThrow();
+        course.setVersion(null);
+        course.setName("Blind");
+
+        mockMvc.perform(put("/api/v1/courses/dto")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(request)))
+                .andExpect(status().isPreconditionRequired());
+        mockMvc.perform(put("/api/v1/courses/")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(course)))
+                .andExpect(status().isPreconditionRequired());
+        mockMvc.perform(patch("/api/v1/courses/" + savedCourse.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(new CoursePatchRequest("Blind", null, null, null))))
+                .andExpect(status().isPreconditionRequired());
+        assertEquals("Test Course", repository.findById(savedCourse.getId()).orElseThrow().getName(),
+                "Запис без версії не має нічого змінити");
+
+        // If-Match: * is the explicit opt-out
+        mockMvc.perform(put("/api/v1/courses/")
+                .header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(course)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(savedCourse.getVersion() + 1));
+
+        Course updated = repository.findById(savedCourse.getId()).orElseThrow();
+        assertEquals("Blind", updated.getName());
+        assertEquals(course.getCreatedDate(), updated.getCreatedDate());
+    }
+
+    @Test
+    void mergeShouldRetryOnConcurrentChange() {
+        Course merged = courseService.merge(savedCourse.getId(), course -> {
+            if (course.getVersion().equals(savedCourse.getVersion())) {
+                // a concurrent writer gets in between the read and the write
+                repository.save(repository.findById(course.getId()).orElseThrow());
+            }
+            course.setLevel("C2");
+            return course;
+        });
+
+        assertEquals("C2", merged.getLevel());
+        assertEquals(savedCourse.getVersion() + 2, merged.getVersion());
+    }
+
+    @Test
+    void patchCourseShouldOnlyChangeGivenFields() throws Exception {
+        mockMvc.perform(patch("/api/v1/courses/" + savedCourse.getId())
+                .header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(new CoursePatchRequest(null, null, "B1", null))))
+                .andExpect(status().isNoContent());
+
+        Course patched = repository.findById(savedCourse.getId()).orElseThrow();
+        assertEquals("B1", patched.getLevel());
+        assertEquals("Test Course", patched.getName());
+        assertEquals("###test", patched.getDescription());
+        assertNotNull(patched.getLastModifiedDate());
+    }
+
+    @Test
+    void patchMissingCourseShouldReturnNotFound() throws Exception {
+        mockMvc.perform(patch("/api/v1/courses/nonexistent")
+                .header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(new CoursePatchRequest("Name", null, null, null))))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void updateCourseWithNullIdShouldReturnNull() {
         CourseUpdateRequest request = new CourseUpdateRequest(
@@ -151,4 +611,41 @@ public class IntegrationTests {
         assertEquals("C1", updated.getLevel());
         assertEquals("###modified", updated.getDescription());
     }
+
+    @Test
+    void statsShouldCountByLanguageAndLevel() throws Exception {
+        courseService.create(new Course("Stats One", "English", "B1", "###test stats"));
+        courseService.create(new Course("Stats Two", "French", "A1", "###test stats"));
+        cacheManager.getCache("course-stats").clear();
+
+        mockMvc.perform(get("/api/v1/courses/stats"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", containsString("max-age")))
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.byLanguage.English").value(2))
+                .andExpect(jsonPath("$.byLanguage.French").value(1))
+                .andExpect(jsonPath("$.byLevel.A1").value(2))
+                .andExpect(jsonPath("$.byLanguageAndLevel.English.B1").value(1));
+    }
+
+    @Test
+    void statsShouldCountCoursesCreatedPerDay() throws Exception {
+        courseService.create(new Course("Stats Day", "English", "B1", "###test stats"));
+        cacheManager.getCache("course-stats").clear();
+        LocalDate today = LocalDate.now();
+
+        mockMvc.perform(get("/api/v1/courses/stats/created")
+                .param("from", today.minusDays(2).toString())
+                .param("to", today.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].count").value(0))
+                .andExpect(jsonPath("$[2].day").value(today.toString()))
+                .andExpect(jsonPath("$[2].count").value(2));
+
+        mockMvc.perform(get("/api/v1/courses/stats/created")
+                .param("from", today.toString())
+                .param("to", today.minusDays(1).toString()))
+                .andExpect(status().isBadRequest());
+    }
 }
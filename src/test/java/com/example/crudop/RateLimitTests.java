@@ -0,0 +1,83 @@
+package com.example.crudop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+@SpringBootTest(properties = {
+        "courses.rate-limit.enabled=true",
+        "courses.rate-limit.api-keys=noisy,quiet,async",
+        "courses.rate-limit.max-concurrent=1",
+        "courses.rate-limit.endpoints[0].method=GET",
+        "courses.rate-limit.endpoints[0].pattern=/api/v1/courses/hello",
+        "courses.rate-limit.endpoints[0].capacity=2",
+        "courses.rate-limit.endpoints[0].refill-per-second=0.01"
+})
+@AutoConfigureMockMvc
+public class RateLimitTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void burstOverCapacityShouldBeRejectedPerClient() throws Exception {
+        double rejected = meterRegistry.get("courses.rate-limit.rejections").tag("reason", "rate").counter().count();
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/v1/courses/hello").header("X-API-Key", "noisy"))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/courses/hello").header("X-API-Key", "noisy"))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        mockMvc.perform(get("/api/v1/courses/hello").header("X-API-Key", "quiet"))
+                .andExpect(status().isOk());
+
+        assertEquals(rejected + 1, meterRegistry.get("courses.rate-limit.rejections").tag("reason", "rate").counter().count());
+    }
+
+    @Test
+    void unknownKeysShouldShareTheBucketOfTheirAddress() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/v1/courses/hello").header("X-API-Key", "made-up-" + i)
+                            .with(request -> {
+                                request.setRemoteAddr("10.1.2.3");
+                                return request;
+                            }))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/v1/courses/hello").header("X-API-Key", "made-up-2")
+                        .with(request -> {
+                            request.setRemoteAddr("10.1.2.3");
+                            return request;
+                        }))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    @Test
+    void asyncRequestShouldHoldItsSlotUntilCompleted() throws Exception {
+        MvcResult export = mockMvc.perform(get("/api/v1/courses/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(get("/api/v1/courses/hello").header("X-API-Key", "async"))
+                .andExpect(status().isServiceUnavailable());
+
+        export.getRequest().getAsyncContext().complete();
+        mockMvc.perform(get("/api/v1/courses/hello").header("X-API-Key", "async"))
+                .andExpect(status().isOk());
+    }
+}
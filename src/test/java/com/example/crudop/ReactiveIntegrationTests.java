@@ -0,0 +1,113 @@
+package com.example.crudop;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.AutoConfigureWebTestClient;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.repository.ReactiveCourseRepository;
+import com.example.crudop.request.CoursePatchRequest;
+import com.example.crudop.request.CourseUpdateRequest;
+
+import reactor.test.StepVerifier;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@AutoConfigureWebTestClient
+@ActiveProfiles("reactive")
+public class ReactiveIntegrationTests {
+
+    @Autowired
+    private WebTestClient webClient;
+
+    @Autowired
+    private ReactiveCourseRepository repository;
+
+    private Course savedCourse;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll().block();
+        savedCourse = repository.save(new Course("Test Course", "English", "A1", "###test")).block();
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll().block();
+    }
+
+    @Test
+    void getCourseByIdShouldReturnCourse() {
+        webClient.get().uri("/api/v1/courses/{id}", savedCourse.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody()
+                .jsonPath("$.name").isEqualTo("Test Course");
+    }
+
+    @Test
+    void streamAllCoursesShouldEmitEveryCourse() {
+        repository.save(new Course("Second Course", "French", "B1", "###test")).block();
+
+        StepVerifier.create(webClient.get().uri("/api/v1/courses/")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .exchange()
+                        .expectStatus().isOk()
+                        .returnResult(Course.class)
+                        .getResponseBody())
+                .expectNextMatches(course -> course.getName().equals("Test Course"))
+                .expectNextMatches(course -> course.getName().equals("Second Course"))
+                .verifyComplete();
+    }
+
+    @Test
+    void updateCourseViaDtoShouldReturnEmptyForMissingId() {
+        webClient.put().uri("/api/v1/courses/dto")
+                .header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new CourseUpdateRequest("nonexistent", "Name", "English", "A1", "###test"))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody().isEmpty();
+    }
+
+    @Test
+    void writesShouldFollowIfMatchLikeTheServletStack() {
+        CoursePatchRequest patch = new CoursePatchRequest(null, null, "B1", null);
+        webClient.patch().uri("/api/v1/courses/{id}", savedCourse.getId())
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_REQUIRED);
+
+        String etag = webClient.get().uri("/api/v1/courses/{id}", savedCourse.getId())
+                .exchange()
+                .expectStatus().isOk()
+                .returnResult(Course.class).getResponseHeaders().getETag();
+        webClient.patch().uri("/api/v1/courses/{id}", savedCourse.getId())
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus().isNoContent();
+        webClient.patch().uri("/api/v1/courses/{id}", savedCourse.getId())
+                .header("If-Match", etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(patch)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+
+        webClient.delete().uri("/api/v1/courses/{id}", savedCourse.getId())
+                .header("If-Match", etag)
+                .exchange()
+                .expectStatus().isEqualTo(HttpStatus.PRECONDITION_FAILED);
+        assertEquals("B1", repository.findById(savedCourse.getId()).block().getLevel());
+    }
+}
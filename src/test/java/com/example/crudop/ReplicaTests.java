@@ -0,0 +1,139 @@
+package com.example.crudop;
+
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.replica.CatalogReplica;
+import com.example.crudop.replica.ReplicaFile;
+import com.example.crudop.repository.CourseRepository;
+import com.example.crudop.request.CourseCreateRequest;
+import com.example.crudop.service.CourseReplicaService;
+import com.example.crudop.service.CourseService;
+
+@SpringBootTest(properties = {"courses.replica.enabled=true", "courses.replica.rebuild-interval=1h",
+        "courses.replica.file=${java.io.tmpdir}/crudop-test/courses.replica"})
+public class ReplicaTests {
+
+    @Autowired
+    private CourseService service;
+
+    @Autowired
+    private CourseReplicaService replicaService;
+
+    @Autowired
+    private CourseRepository repository;
+
+    @TempDir
+    private Path dir;
+
+    private static Course course(String id, String name) {
+        Course course = new Course(name, "English", "B1", "###test replica ünïcode");
+        course.setId(id);
+        course.setCreatedDate(LocalDateTime.of(2025, 3, 1, 10, 15, 30, 123456789));
+        course.setVersion(2L);
+        return course;
+    }
+
+    @Test
+    void snapshotShouldFindEveryCourseById() throws Exception {
+        Path file = dir.resolve("courses.replica");
+        // Mongo order: strings before ObjectIds
+        List<Course> courses = List.of(course("a1", "A"), course("b2", "B"),
+                course("65f000000000000000000001", "C"), course("65f000000000000000000002", "D"));
+        ReplicaFile.write(file, courses.iterator(), "token");
+
+        ReplicaFile snapshot = ReplicaFile.open(file);
+        assertEquals(4, snapshot.size());
+        assertEquals("token", snapshot.resumeToken());
+        for (Course expected : courses) {
+            Course found = snapshot.find(expected.getId());
+            assertNotNull(found, "Курс " + expected.getId() + " має бути у знімку");
+            assertEquals(expected.getName(), found.getName());
+            assertEquals(expected.getDescription(), found.getDescription());
+            assertEquals(expected.getCreatedDate(), found.getCreatedDate());
+            assertNull(found.getLastModifiedDate());
+            assertEquals(2L, found.getVersion());
+        }
+        assertNotNull(snapshot.find("65F000000000000000000002"), "ObjectId шукається без урахування регістру");
+        assertNull(snapshot.find("zz"));
+    }
+
+    @Test
+    void unsortedCoursesShouldBeRejected() {
+        Path file = dir.resolve("courses.replica");
+        List<Course> courses = List.of(course("b2", "B"), course("a1", "A"));
+
+        assertThrows(IllegalArgumentException.class, () -> ReplicaFile.write(file, courses.iterator(), null));
+    }
+
+    @Test
+    void compactionShouldMergeChangesIntoSnapshot() throws Exception {
+        CatalogReplica replica = new CatalogReplica(dir.resolve("courses.replica"));
+        replica.reload(List.of(course("a1", "A"), course("b2", "B"), course("c3", "C")).iterator(), null);
+
+        replica.put(course("b2", "B changed"));
+        replica.remove("c3");
+        replica.put(course("d4", "D"));
+        assertEquals("B changed", replica.get("b2").getName());
+        assertNull(replica.get("c3"));
+        assertEquals(3, replica.stream().count());
+
+        replica.compact("after-d4");
+
+        assertEquals(0, replica.pendingChanges());
+        assertEquals("after-d4", replica.resumeToken());
+        assertEquals("B changed", replica.get("b2").getName());
+        assertNull(replica.get("c3"));
+        assertEquals(List.of("a1", "b2", "d4"), replica.stream().map(Course::getId).toList());
+    }
+
+    @Test
+    void getByIdShouldBeServedFromReplicaWithoutMongo() {
+        Course stored = repository.insert(course(null, "Replica"));
+        try {
+            assertTrue(replicaService.rebuild());
+            assertTrue(replicaService.isReady());
+
+            repository.deleteById(stored.getId());
+
+            // the replica has not caught up with the delete yet, so Mongo was not asked
+            Course found = service.getById(stored.getId());
+            assertNotNull(found, "Курс має читатися з локальної репліки");
+            assertEquals("Replica", found.getName());
+        } finally {
+            repository.deleteById(stored.getId());
+        }
+    }
+
+    @Test
+    void ownWritesShouldBeReadBackFromReplica() {
+        assertTrue(replicaService.rebuild());
+        Course created = service.create(new CourseCreateRequest("Own write", "English", "A1", "###test replica"));
+        try {
+            assertEquals("Own write", service.getById(created.getId()).getName(), "Вузол має бачити власний запис");
+
+            created.setName("Own update");
+            Course updated = service.update(created);
+            assertEquals(updated.getVersion(), service.getById(created.getId()).getVersion(),
+                    "Версія з репліки має збігатися, інакше If-Match отримає 409");
+            assertTrue(service.streamAll().anyMatch(course -> "Own update".equals(course.getName())));
+
+            service.delete(created.getId());
+            assertNull(service.getById(created.getId()));
+        } finally {
+            repository.deleteById(created.getId());
+        }
+    }
+}
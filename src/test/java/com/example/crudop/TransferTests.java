@@ -0,0 +1,226 @@
+package com.example.crudop;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.crudop.model.Course;
+import com.example.crudop.repository.CourseRepository;
+
+@SpringBootTest(properties = {"courses.transfer.batch-size=2", "courses.transfer.max-record-length=200"})
+@AutoConfigureMockMvc
+public class TransferTests {
+
+    private static final MediaType NDJSON = MediaType.APPLICATION_NDJSON;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository repository;
+
+    @Autowired
+    private MongoOperations mongoOperations;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        mongoOperations.dropCollection("course_imports");
+    }
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+        mongoOperations.dropCollection("course_imports");
+    }
+
+    private byte[] export(String format, boolean gzip) throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/v1/courses/export")
+                .param("format", format)
+                .param("gzip", String.valueOf(gzip)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+    }
+
+    private static String ndjson(int from, int to) {
+        StringBuilder lines = new StringBuilder();
+        for (int i = from; i <= to; i++) {
+            lines.append("{\"name\":\"Import ").append(i)
+                    .append("\",\"language\":\"English\",\"level\":\"A1\",\"description\":\"###test import\"}\n");
+        }
+        return lines.toString();
+    }
+
+    @Test
+    void csvExportShouldRoundTrip() throws Exception {
+        Course tricky = repository.save(new Course("Quotes \"and\", commas", "English", "B1", "line one\nline two"));
+        repository.save(new Course("Plain", "French", "A2", "###test csv"));
+
+        byte[] csv = export("CSV", false);
+        assertTrue(new String(csv, StandardCharsets.UTF_8).startsWith("id,name,language,level,description"));
+        repository.deleteAll();
+
+        mockMvc.perform(post("/api/v1/courses/import")
+                .param("format", "CSV")
+                .contentType("text/csv")
+                .content(csv))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.imported").value(2))
+                .andExpect(jsonPath("$.failed").value(0));
+
+        Course restored = repository.findById(tricky.getId()).orElseThrow();
+        assertEquals(tricky.getName(), restored.getName());
+        assertEquals(tricky.getDescription(), restored.getDescription(), "Перенос рядка в описі має зберегтися");
+    }
+
+    @Test
+    void csvWithoutRequiredColumnShouldFailWithReport() throws Exception {
+        mockMvc.perform(post("/api/v1/courses/import")
+                .param("format", "CSV")
+                .param("importId", "header-test")
+                .contentType("text/csv")
+                .content("name,language\r\nNo level,English\r\n"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.invalidInput").value(true))
+                .andExpect(jsonPath("$.errors[0]").value("header: CSV header has no level column"));
+
+        mockMvc.perform(get("/api/v1/courses/import/header-test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"));
+        assertEquals(0, repository.count());
+    }
+
+    @Test
+    void unterminatedQuoteShouldStopImportAndResumeOnceFixed() throws Exception {
+        StringBuilder after = new StringBuilder();
+        for (int i = 4; i <= 20; i++) {
+            after.append("Good ").append(i).append(",English,A1\r\n");
+        }
+        String before = "name,language,level\r\nGood 1,English,A1\r\nGood 2,English,A1\r\nGood 3,English,A1\r\n";
+
+        mockMvc.perform(post("/api/v1/courses/import")
+                .param("format", "CSV")
+                .param("importId", "quote-test")
+                .contentType("text/csv")
+                .content(before + "\"Stray quote,English,A2\r\n" + after))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.invalidInput").value(true))
+                .andExpect(jsonPath("$.records").value(3))
+                .andExpect(jsonPath("$.imported").value(3))
+                .andExpect(jsonPath("$.errors[0]").value(
+                        "record 4: record longer than 200 characters, import stopped"));
+        assertEquals(3, repository.count(), "Записи після зламаних лапок не мають зникнути в одному записі");
+
+        mockMvc.perform(post("/api/v1/courses/import")
+                .param("format", "CSV")
+                .param("importId", "quote-test")
+                .contentType("text/csv")
+                .content(before + "Fixed quote,English,A2\r\n" + after))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.imported").value(21));
+        assertEquals(21, repository.count());
+        assertTrue(repository.findAll().stream().anyMatch(course -> "Good 20".equals(course.getName())));
+    }
+
+    @Test
+    void gzipNdjsonExportShouldBeImportable() throws Exception {
+        repository.save(new Course("Zipped", "German", "C1", "###test gzip"));
+
+        byte[] gzipped = export("NDJSON", true);
+        String lines = new String(new GZIPInputStream(new ByteArrayInputStream(gzipped)).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertTrue(lines.contains("\"name\":\"Zipped\""));
+        repository.deleteAll();
+
+        mockMvc.perform(post("/api/v1/courses/import")
+                .contentType("application/gzip")
+                .content(gzipped))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(1));
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    void importShouldResumeFromCheckpointWithoutDuplicates() throws Exception {
+        // the first attempt only got through the first 3 records
+        mockMvc.perform(post("/api/v1/courses/import")
+                .param("importId", "resume-test")
+                .contentType(NDJSON)
+                .content(ndjson(1, 3)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records").value(3));
+
+        String invalid = "{\"name\":\"\",\"language\":\"English\",\"level\":\"A1\"}\nnot json\n";
+        mockMvc.perform(post("/api/v1/courses/import")
+                .param("importId", "resume-test")
+                .contentType(NDJSON)
+                .content(ndjson(1, 5) + invalid))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.records").value(7))
+                .andExpect(jsonPath("$.imported").value(5))
+                .andExpect(jsonPath("$.failed").value(2))
+                .andExpect(jsonPath("$.errors.length()").value(2));
+
+        List<String> names = repository.findAll().stream().map(Course::getName).sorted().toList();
+        assertEquals(List.of("Import 1", "Import 2", "Import 3", "Import 4", "Import 5"), names);
+
+        mockMvc.perform(get("/api/v1/courses/import/resume-test"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+        mockMvc.perform(get("/api/v1/courses/import/unknown"))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void replayedBatchShouldCountExistingCourses() throws Exception {
+        ByteArrayOutputStream gzipped = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(gzipped)) {
+            out.write(ndjson(1, 2).getBytes(StandardCharsets.UTF_8));
+        }
+        mockMvc.perform(post("/api/v1/courses/import")
+                .param("importId", "replay-test")
+                .contentType("application/gzip")
+                .content(gzipped.toByteArray()))
+                .andExpect(status().isOk());
+
+        // a lost checkpoint: the same records are written again
+        mongoOperations.dropCollection("course_imports");
+        mockMvc.perform(post("/api/v1/courses/import")
+                .param("importId", "replay-test")
+                .contentType("application/gzip")
+                .content(gzipped.toByteArray()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.imported").value(0))
+                .andExpect(jsonPath("$.existing").value(2));
+        assertEquals(2, repository.count());
+    }
+}
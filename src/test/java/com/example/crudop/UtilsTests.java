@@ -0,0 +1,70 @@
+package com.example.crudop;
+
+import java.io.ByteArrayOutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import org.junit.jupiter.api.Test;
+
+import com.example.crudop.Utils.Utils;
+import com.example.crudop.model.Course;
+import com.example.crudop.request.CourseCreateRequest;
+
+public class UtilsTests {
+
+    private Course course(String id, String name) {
+        Course course = new Course(name, "English", "A1", "desc");
+        course.setId(id);
+        course.setCreatedDate(LocalDateTime.of(2024, 5, 1, 10, 30));
+        return course;
+    }
+
+    @Test
+    void toJsonWritesDatesAsIsoStrings() throws Exception {
+        String json = Utils.toJson(course("1", "English A1"));
+
+        assertThat(json).contains("\"createdDate\":\"2024-05-01T10:30:00\"");
+    }
+
+    @Test
+    void courseReaderRoundTripsToJson() throws Exception {
+        Course original = course("1", "English A1");
+
+        Course read = Utils.courseReader().readValue(Utils.courseWriter().writeValueAsString(original));
+
+        assertEquals(original.getId(), read.getId());
+        assertEquals(original.getCreatedDate(), read.getCreatedDate());
+    }
+
+    @Test
+    void createRequestReaderIgnoresUnknownFields() throws Exception {
+        CourseCreateRequest request = Utils.createRequestReader()
+                .readValue("{\"name\":\"N\",\"language\":\"L\",\"level\":\"A1\",\"description\":\"D\",\"extra\":1}");
+
+        assertEquals(new CourseCreateRequest("N", "L", "A1", "D"), request);
+    }
+
+    @Test
+    void writeJsonArrayStreamsEveryCourse() throws Exception {
+        List<Course> courses = List.of(course("1", "One"), course("2", "Two"));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Utils.writeJsonArray(courses.iterator(), out);
+
+        List<Course> read = Utils.mapper().readerForListOf(Course.class).readValue(out.toByteArray());
+        assertEquals(courses, read);
+    }
+
+    @Test
+    void writeNdjsonWritesOneCoursePerLine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        Utils.writeNdjson(List.of(course("1", "One"), course("2", "Two")).iterator(), out);
+
+        List<String> lines = out.toString().lines().toList();
+        assertEquals(2, lines.size());
+        assertThat(lines.get(1)).startsWith("{\"id\":\"2\"");
+    }
+}
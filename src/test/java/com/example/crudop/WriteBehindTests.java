@@ -0,0 +1,71 @@
+package com.example.crudop;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.example.crudop.Utils.Utils;
+import com.example.crudop.model.Course;
+import com.example.crudop.repository.CourseRepository;
+import com.example.crudop.request.CourseCreateRequest;
+import com.fasterxml.jackson.databind.JsonNode;
+
+@SpringBootTest(properties = {"courses.write-behind.enabled=true", "courses.write-behind.flush-interval=20ms"})
+@AutoConfigureMockMvc
+public class WriteBehindTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CourseRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        List<Course> toDelete = repository.findAll().stream()
+                .filter(c -> c.getDescription() != null && c.getDescription().contains("###test"))
+                .toList();
+        repository.deleteAll(toDelete);
+    }
+
+    @Test
+    void persistedAckShouldReturnStoredCourse() throws Exception {
+        String body = mockMvc.perform(post("/api/v1/courses/dto")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(new CourseCreateRequest("Queued", "English", "A1", "###test write-behind"))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").exists())
+                .andReturn().getResponse().getContentAsString();
+
+        String id = Utils.mapper().readTree(body).get("id").asText();
+        assertTrue(repository.existsById(id), "Після PERSISTED курс має бути в базі");
+    }
+
+    @Test
+    void queuedAckShouldBeAcceptedAndFlushedLater() throws Exception {
+        String body = mockMvc.perform(post("/api/v1/courses/dto")
+                .param("ack", "QUEUED")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(Utils.toJson(new CourseCreateRequest("Queued", "English", "A1", "###test write-behind"))))
+                .andExpect(status().isAccepted())
+                .andReturn().getResponse().getContentAsString();
+
+        JsonNode queued = Utils.mapper().readTree(body);
+        String id = queued.get("id").asText();
+        for (int i = 0; i < 100 && !repository.existsById(id); i++) {
+            Thread.sleep(20);
+        }
+        assertEquals("Queued", repository.findById(id).orElseThrow().getName());
+    }
+}